@@ -2,8 +2,12 @@ package gov.ca.cwds.utils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author CWDS CALS API Team
@@ -12,14 +16,26 @@ import java.io.IOException;
 public final class JsonUtils {
 
   private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final ObjectWriter writer = objectMapper.writer();
+  private static final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
 
   private JsonUtils() {}
 
   public static String to(Object o) throws JsonProcessingException {
-    return objectMapper.writeValueAsString(o);
+    return writer.writeValueAsString(o);
   }
 
   public static <T> T from(String json, Class<T> clazz) throws IOException {
-    return objectMapper.readValue(json, clazz);
+    return reader(clazz).readValue(json);
+  }
+
+  /**
+   * Readers are immutable and thread safe, so they are built once per type and shared.
+   *
+   * @param clazz type to read
+   * @return shared reader for the type
+   */
+  public static ObjectReader reader(Class<?> clazz) {
+    return readers.computeIfAbsent(clazz, objectMapper::readerFor);
   }
 }
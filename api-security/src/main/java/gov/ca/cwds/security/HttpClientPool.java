@@ -0,0 +1,127 @@
+package gov.ca.cwds.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseFilter;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.JerseyClientBuilder;
+
+/**
+ * Keep-alive HTTP connections shared by all Jersey clients of the application.
+ *
+ * <p>Connections are bounded to {@code maxConnections} in total and to
+ * {@code maxConnectionsPerRoute} per host. Idle connections are closed after
+ * {@code idleTimeout} milliseconds. Limits of the shared pool are taken from
+ * {@code perry.http.maxConnections} and {@code perry.http.maxConnectionsPerRoute} system
+ * properties.</p>
+ *
+ * <p>Like Jersey client, the Jersey Apache connector is provided by the application, e.g. by
+ * {@code dropwizard-client}.</p>
+ */
+public class HttpClientPool {
+
+  public static final int DEFAULT_MAX_CONNECTIONS = 200;
+  public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+  private static final int CONNECT_TIMEOUT = 5000;
+  private static final int READ_TIMEOUT = 20000;
+  private static final long IDLE_TIMEOUT = 30000;
+
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final ScheduledExecutorService idleConnectionReaper;
+  private final Client client;
+
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder errorResponses = new LongAdder();
+
+  public HttpClientPool(int maxConnections, int maxConnectionsPerRoute) {
+    connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+    idleConnectionReaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "perry-http-idle-connection-reaper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    idleConnectionReaper.scheduleWithFixedDelay(this::closeIdleConnections, IDLE_TIMEOUT,
+        IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+    client = newClient();
+  }
+
+  public static HttpClientPool getShared() {
+    return SharedPoolHolder.INSTANCE;
+  }
+
+  /**
+   * @return client shared by all callers, must not be closed or reconfigured
+   */
+  public Client getClient() {
+    return client;
+  }
+
+  /**
+   * @return new client on top of the pooled connections, closing it keeps the pool open
+   */
+  public Client newClient() {
+    ClientConfig clientConfig = new ClientConfig()
+        .connectorProvider(new ApacheConnectorProvider())
+        .property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager)
+        .property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true)
+        .property(ClientProperties.CONNECT_TIMEOUT, CONNECT_TIMEOUT)
+        .property(ClientProperties.READ_TIMEOUT, READ_TIMEOUT);
+    return new JerseyClientBuilder()
+        .withConfig(clientConfig)
+        .register((ClientRequestFilter) requestContext -> requests.increment())
+        .register((ClientResponseFilter) (requestContext, responseContext) -> {
+          if (responseContext.getStatus() >= 400) {
+            errorResponses.increment();
+          }
+        })
+        .build();
+  }
+
+  /**
+   * @return request counters along with leased, available, pending and max connections
+   */
+  public Map<String, Number> getMetrics() {
+    PoolStats stats = connectionManager.getTotalStats();
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("requests", requests.sum());
+    metrics.put("errorResponses", errorResponses.sum());
+    metrics.put("leasedConnections", stats.getLeased());
+    metrics.put("availableConnections", stats.getAvailable());
+    metrics.put("pendingConnections", stats.getPending());
+    metrics.put("maxConnections", stats.getMax());
+    return metrics;
+  }
+
+  public void close() {
+    idleConnectionReaper.shutdownNow();
+    client.close();
+    connectionManager.shutdown();
+  }
+
+  private void closeIdleConnections() {
+    connectionManager.closeExpiredConnections();
+    connectionManager.closeIdleConnections(IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+  }
+
+  private static class SharedPoolHolder {
+
+    private static final HttpClientPool INSTANCE = new HttpClientPool(
+        Integer.getInteger("perry.http.maxConnections", DEFAULT_MAX_CONNECTIONS),
+        Integer.getInteger("perry.http.maxConnectionsPerRoute",
+            DEFAULT_MAX_CONNECTIONS_PER_ROUTE));
+  }
+}
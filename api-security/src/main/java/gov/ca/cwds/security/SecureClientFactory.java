@@ -2,13 +2,16 @@ package gov.ca.cwds.security;
 
 import gov.ca.cwds.security.realm.PerrySubject;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.ClientRequestFilter;
 
 public class SecureClientFactory {
 
+  /**
+   * @return client passing the current Perry token, connections are taken from
+   * {@link HttpClientPool#getShared()}
+   */
   public static Client createSecureClient() {
-    Client client = ClientBuilder.newClient();
+    Client client = HttpClientPool.getShared().newClient();
     client.register((ClientRequestFilter) requestContext -> requestContext.getHeaders()
         .add("Authorization", PerrySubject.getToken()));
     return client;
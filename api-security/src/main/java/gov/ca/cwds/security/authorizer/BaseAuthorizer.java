@@ -1,12 +1,21 @@
 package gov.ca.cwds.security.authorizer;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.shiro.authz.AuthorizationException;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.subject.support.SubjectThreadState;
+import org.apache.shiro.util.ThreadContext;
+import org.apache.shiro.util.ThreadState;
 
 import java.lang.reflect.ParameterizedType;
 
@@ -15,6 +24,17 @@ import java.lang.reflect.ParameterizedType;
  */
 public abstract class BaseAuthorizer<Type, ID> implements Authorizer {
 
+  /**
+   * Type arguments resolved once per authorizer class, authorizers may be created per check.
+   */
+  private static final ClassValue<java.lang.reflect.Type[]> TYPE_ARGUMENTS =
+      new ClassValue<java.lang.reflect.Type[]>() {
+        @Override
+        protected java.lang.reflect.Type[] computeValue(Class<?> clazz) {
+          return extractParameterizedType(clazz).getActualTypeArguments();
+        }
+      };
+
   private Class<Type> instanceType;
   private Class<ID> idType;
 
@@ -53,21 +73,78 @@ public abstract class BaseAuthorizer<Type, ID> implements Authorizer {
         "Authorizer for type: " + o.getClass() + " is not implemented");
   }
 
+  /**
+   * Checks a whole collection of ids, by default calls {@link #checkId(Object)} per id. Override
+   * to answer the collection in one query.
+   *
+   * @param ids non null ids
+   * @return ids which are allowed
+   */
+  protected Set<ID> checkIds(Collection<ID> ids) {
+    return checkEach(ids, this::checkId, new HashSet<>());
+  }
+
+  /**
+   * Checks a whole collection of instances, by default calls {@link #checkInstance(Object)} per
+   * instance. Override to answer the collection in one query.
+   *
+   * @param instances non null instances
+   * @return instances which are allowed
+   */
+  protected Set<Type> checkInstances(Collection<Type> instances) {
+    return checkEach(instances, this::checkInstance,
+        Collections.newSetFromMap(new IdentityHashMap<>()));
+  }
+
+  /**
+   * @return true to run default per element checks of a collection in parallel, for expensive
+   * {@link #checkId(Object)} or {@link #checkInstance(Object)}
+   */
+  protected boolean isParallelCheck() {
+    return false;
+  }
+
   protected Collection<ID> filterIds(Collection<ID> ids) {
-    return filterObjects(ids, this::checkId);
+    return filterObjects(ids, this::checkIds);
   }
 
   protected Collection<Type> filterInstances(Collection<Type> instances) {
-    return filterObjects(instances, this::checkInstance);
+    return filterObjects(instances, this::checkInstances);
   }
 
-  private <E> Collection<E> filterObjects(Collection<E> objects, Predicate<E> predicate) {
-    Stream<E> filteredStream = objects.stream().filter(Objects::nonNull)
-        .filter(predicate);
+  private <E> Collection<E> filterObjects(Collection<E> objects,
+      Function<Collection<E>, Set<E>> bulkCheck) {
+    List<E> nonNullObjects = objects.stream().filter(Objects::nonNull)
+        .collect(Collectors.toList());
+    Set<E> allowedObjects = bulkCheck.apply(nonNullObjects);
+    Stream<E> filteredStream = nonNullObjects.stream().filter(allowedObjects::contains);
     return objects instanceof Set ? filteredStream.collect(Collectors.toSet())
         : filteredStream.collect(Collectors.toList());
   }
 
+  /**
+   * Parallel checks run with the subject of the calling thread.
+   */
+  private <E> Set<E> checkEach(Collection<E> objects, Predicate<E> predicate, Set<E> result) {
+    if (!isParallelCheck() || objects.size() < 2) {
+      objects.stream().filter(predicate).forEach(result::add);
+      return result;
+    }
+    Subject subject = ThreadContext.getSubject();
+    Predicate<E> subjectPredicate = subject == null ? predicate : object -> {
+      ThreadState threadState = new SubjectThreadState(subject);
+      threadState.bind();
+      try {
+        return predicate.test(object);
+      } finally {
+        threadState.restore();
+      }
+    };
+    result.addAll(objects.parallelStream().filter(subjectPredicate)
+        .collect(Collectors.toList()));
+    return result;
+  }
+
   @SuppressWarnings("unchecked")
   public final Collection filter(Collection c) {
     if (c == null || c.isEmpty()) {
@@ -87,11 +164,10 @@ public abstract class BaseAuthorizer<Type, ID> implements Authorizer {
 
   @SuppressWarnings("unchecked")
   private <T> Class<T> getClass(int index) {
-    return ((Class<T>) extractParameterizedType().getActualTypeArguments()[index]);
+    return ((Class<T>) TYPE_ARGUMENTS.get(getClass())[index]);
   }
 
-  private ParameterizedType extractParameterizedType() {
-    Class clazz = getClass();
+  private static ParameterizedType extractParameterizedType(Class clazz) {
     java.lang.reflect.Type type = clazz.getGenericSuperclass();
     while (!(type instanceof ParameterizedType)) {
       type = ((Class) type).getGenericSuperclass();
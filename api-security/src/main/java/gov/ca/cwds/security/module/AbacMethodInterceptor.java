@@ -5,12 +5,9 @@ import gov.ca.cwds.security.configuration.SecurityConfiguration;
 import gov.ca.cwds.security.permission.AbacPermission;
 import java.lang.reflect.Parameter;
 import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.inject.Inject;
-import javax.script.ScriptContext;
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
-import javax.script.SimpleScriptContext;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.shiro.SecurityUtils;
@@ -20,15 +17,14 @@ import org.apache.shiro.SecurityUtils;
  */
 public class AbacMethodInterceptor implements MethodInterceptor {
 
-  private ScriptEngine scriptEngine;
+  /**
+   * Selectors compiled once per distinct selector of {@code @Authorize} permissions.
+   */
+  private final Map<String, SecuredObjectSelector> selectors = new ConcurrentHashMap<>();
 
   @Inject
   private volatile SecurityConfiguration securityConfiguration;
 
-  public AbacMethodInterceptor() {
-    scriptEngine = new ScriptEngineManager().getEngineByName("groovy");
-  }
-
   @Override
   public Object invoke(MethodInvocation methodInvocation) throws Throwable {
     inject();
@@ -41,8 +37,7 @@ public class AbacMethodInterceptor implements MethodInterceptor {
     return checkResultPermissions(result, methodInvocation);
   }
 
-  private Object checkResultPermissions(Object result, MethodInvocation methodInvocation)
-      throws ScriptException {
+  private Object checkResultPermissions(Object result, MethodInvocation methodInvocation) {
     Authorize authorize = methodInvocation.getMethod().getAnnotation(Authorize.class);
     if (authorize != null && result != null) {
       checkPermissions(authorize, result);
@@ -50,8 +45,7 @@ public class AbacMethodInterceptor implements MethodInterceptor {
     return result;
   }
 
-  private void checkParametersPermissions(MethodInvocation methodInvocation)
-      throws ScriptException {
+  private void checkParametersPermissions(MethodInvocation methodInvocation) {
     Parameter[] parameters = methodInvocation.getMethod().getParameters();
     Object[] args = methodInvocation.getArguments();
     for (int i = 0; i < parameters.length; i++) {
@@ -62,56 +56,53 @@ public class AbacMethodInterceptor implements MethodInterceptor {
     }
   }
 
-  private void checkPermissions(Authorize authorize, Object arg) throws ScriptException {
+  private void checkPermissions(Authorize authorize, Object arg) {
     for (String permission : authorize.value()) {
       checkPermission(permission, arg);
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private void checkPermission(String permission, Object arg) throws ScriptException {
-    AbacPermission abacPermission = new AbacPermission(permission);
-    String selector = abacPermission.getSecuredObject().toString();
-    int dotIndex = selector.indexOf('.');
-    String identifier = dotIndex == -1 ? selector : selector.substring(0, dotIndex);
-    ScriptContext scriptContext = new SimpleScriptContext();
-    scriptContext.setAttribute(identifier, arg, ScriptContext.ENGINE_SCOPE);
-
-    if (arg instanceof Collection) {
-      applyPermissionToCollection(abacPermission, scriptContext, identifier);
-    } else {
-      applyPermissionToScalar(abacPermission, scriptContext);
+  private void checkPermission(String permission, Object arg) {
+    long startTime = System.nanoTime();
+    boolean denied = true;
+    try {
+      AbacPermission abacPermission = new AbacPermission(permission);
+      SecuredObjectSelector selector = selectors.computeIfAbsent(
+          abacPermission.getSecuredObject().toString(), SecuredObjectSelector::new);
+
+      if (arg instanceof Collection) {
+        applyPermissionToCollection(abacPermission, selector, (Collection<?>) arg);
+      } else {
+        applyPermissionToScalar(permission, abacPermission, selector, arg);
+      }
+      denied = false;
+    } finally {
+      SecurityModule.getAuthorizationMetrics()
+          .record(permission, System.nanoTime() - startTime, denied);
     }
   }
 
-  private void applyPermissionToCollection(AbacPermission abacPermission, ScriptContext scriptContext, String identifier)
-      throws ScriptException {
-    String selector = abacPermission.getSecuredObject().toString();
-    selector = "it" + selector.substring(identifier.length());
-    final String collectSecuredObjectsScripts = String.format("(%s.collect{%s}).toSet()", identifier, selector);
-    @SuppressWarnings("unchecked")
-    Collection<Object> securedObjects = (Collection<Object>) scriptEngine.eval(collectSecuredObjectsScripts, scriptContext);
+  private void applyPermissionToCollection(AbacPermission abacPermission,
+      SecuredObjectSelector selector, Collection<?> arg) {
+    Collection<Object> securedObjects = selector.selectFromCollection(arg);
     final int sizeBefore = securedObjects.size();
 
     abacPermission.setSecuredObject(securedObjects);
     SecurityUtils.getSubject().checkPermission(abacPermission);
 
     if (sizeBefore != securedObjects.size()) {
-      scriptContext.setAttribute("securedObjects", securedObjects, ScriptContext.ENGINE_SCOPE);
-      final String filterArgsScripts = String.format("%s.removeIf{!securedObjects.contains(%s)}", identifier, selector);
-      scriptEngine.eval(filterArgsScripts, scriptContext);
+      selector.filterCollection(arg, securedObjects);
     }
   }
 
-  private void applyPermissionToScalar(AbacPermission abacPermission, ScriptContext scriptContext)
-      throws ScriptException {
-    String selector = abacPermission.getSecuredObject().toString();
-    @SuppressWarnings("unchecked")
-    Collection<Object> securedObjects = (Collection<Object>) scriptEngine
-        .eval("[" + selector + "].flatten()", scriptContext);
-    for (Object securedObject : securedObjects) {
-      abacPermission.setSecuredObject(securedObject);
-      SecurityUtils.getSubject().checkPermission(abacPermission);
+  private void applyPermissionToScalar(String permission, AbacPermission abacPermission,
+      SecuredObjectSelector selector, Object arg) {
+    String authorizer = permission.substring(0, permission.lastIndexOf(':'));
+    for (Object securedObject : selector.selectFromScalar(arg)) {
+      AuthorizationDecisions.check(authorizer, securedObject, () -> {
+        abacPermission.setSecuredObject(securedObject);
+        SecurityUtils.getSubject().checkPermission(abacPermission);
+      });
     }
   }
 
@@ -0,0 +1,100 @@
+package gov.ca.cwds.security.module;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.shiro.authz.AuthorizationException;
+import org.apache.shiro.authz.UnauthorizedException;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
+
+/**
+ * Decisions on secured ids made within a request, so an id checked by the same authorizer again,
+ * e.g. as an argument and then as a result, isn't checked twice.
+ *
+ * <p>Decisions are remembered between {@link #begin()} and {@link #end()} only, which
+ * {@code PerryAuthenticatingFilter} calls around the request, and only for the subject bound to the
+ * thread at {@link #begin()}. Only numbers and strings are remembered, instances may change between
+ * checks.</p>
+ */
+public final class AuthorizationDecisions {
+
+  private static final String THREAD_CONTEXT_KEY = AuthorizationDecisions.class.getName();
+  private static final Object ALLOWED = new Object();
+
+  private final Subject subject;
+  private final Map<List<Object>, Object> decisions = new ConcurrentHashMap<>();
+
+  private AuthorizationDecisions(Subject subject) {
+    this.subject = subject;
+  }
+
+  /**
+   * Runs the check unless there is a decision on the secured object by the authorizer.
+   *
+   * @throws AuthorizationException if the secured object is denied now or was denied before
+   */
+  static void check(String authorizer, Object securedObject, Runnable check) {
+    AuthorizationDecisions current = isId(securedObject) ? current() : null;
+    if (current == null) {
+      check.run();
+      return;
+    }
+    List<Object> key = Arrays.asList(authorizer, securedObject);
+    Object decision = current.decisions.get(key);
+    if (decision != null) {
+      SecurityModule.getAuthorizationMetrics().recordReusedDecision();
+      if (decision == ALLOWED) {
+        return;
+      }
+      throw reused((AuthorizationException) decision);
+    }
+    try {
+      check.run();
+      current.decisions.put(key, ALLOWED);
+    } catch (AuthorizationException e) {
+      current.decisions.put(key, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Exceptions aren't shared between checks, their stack traces and suppressed exceptions differ.
+   */
+  private static AuthorizationException reused(AuthorizationException denial) {
+    return denial instanceof UnauthorizedException
+        ? new UnauthorizedException(denial.getMessage(), denial)
+        : new AuthorizationException(denial.getMessage(), denial);
+  }
+
+  private static boolean isId(Object securedObject) {
+    return securedObject instanceof Number || securedObject instanceof String;
+  }
+
+  /**
+   * Starts remembering decisions for the subject bound to the current thread.
+   */
+  public static void begin() {
+    Subject subject = ThreadContext.getSubject();
+    if (subject != null) {
+      ThreadContext.put(THREAD_CONTEXT_KEY, new AuthorizationDecisions(subject));
+    }
+  }
+
+  /**
+   * Forgets decisions made since {@link #begin()}.
+   */
+  public static void end() {
+    ThreadContext.remove(THREAD_CONTEXT_KEY);
+  }
+
+  private static AuthorizationDecisions current() {
+    Object current = ThreadContext.get(THREAD_CONTEXT_KEY);
+    if (current instanceof AuthorizationDecisions
+        && ((AuthorizationDecisions) current).subject == ThreadContext.getSubject()) {
+      return (AuthorizationDecisions) current;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,80 @@
+package gov.ca.cwds.security.module;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and denials of {@code @Authorize} checks per permission, along with decisions reused
+ * within a request. See {@link SecurityModule#getAuthorizationMetrics()}.
+ */
+public class AuthorizationMetrics {
+
+  private final ConcurrentMap<String, PermissionMetrics> permissions = new ConcurrentHashMap<>();
+  private final LongAdder reusedDecisions = new LongAdder();
+
+  void record(String permission, long nanos, boolean denied) {
+    permissions.computeIfAbsent(permission, key -> new PermissionMetrics()).record(nanos, denied);
+  }
+
+  void recordReusedDecision() {
+    reusedDecisions.increment();
+  }
+
+  public long getReusedDecisions() {
+    return reusedDecisions.sum();
+  }
+
+  /**
+   * Clears all metrics, e.g. after they were reported.
+   */
+  public void reset() {
+    permissions.clear();
+    reusedDecisions.reset();
+  }
+
+  /**
+   * @return checks, denials, total and max time in milliseconds per permission
+   */
+  public Map<String, Map<String, Number>> getPermissions() {
+    Map<String, Map<String, Number>> metrics = new TreeMap<>();
+    permissions.forEach((permission, permissionMetrics) ->
+        metrics.put(permission, permissionMetrics.toMap()));
+    return metrics;
+  }
+
+  private static class PermissionMetrics {
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder denials = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    private void record(long nanos, boolean denied) {
+      checks.increment();
+      if (denied) {
+        denials.increment();
+      }
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+    }
+
+    private Map<String, Number> toMap() {
+      Map<String, Number> metrics = new LinkedHashMap<>();
+      metrics.put("checks", checks.sum());
+      metrics.put("denials", denials.sum());
+      metrics.put("totalTime", toMillis(totalNanos.sum()));
+      metrics.put("maxTime", toMillis(maxNanos.get()));
+      return metrics;
+    }
+
+    private static double toMillis(long nanos) {
+      return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package gov.ca.cwds.security.module;
+
+import groovy.lang.Closure;
+import groovy.lang.GroovyShell;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Selector of an {@code @Authorize} permission such as {@code caseDTO.cases.id} compiled to Groovy
+ * closures once, so checks don't compile scripts. The first part of the selector names the
+ * annotated argument or result, the rest is a GPath applied to it or to every element of a
+ * collection.
+ */
+final class SecuredObjectSelector {
+
+  private static final GroovyShell GROOVY_SHELL = new GroovyShell();
+
+  private final Closure<Collection<Object>> selectScalar;
+  private final Closure<Collection<Object>> selectCollection;
+  private final Closure<?> filterCollection;
+
+  @SuppressWarnings("unchecked")
+  SecuredObjectSelector(String selector) {
+    int dotIndex = selector.indexOf('.');
+    String identifier = dotIndex == -1 ? selector : selector.substring(0, dotIndex);
+    String elementSelector = "it" + selector.substring(identifier.length());
+    Map<String, Closure<?>> closures = (Map<String, Closure<?>>) GROOVY_SHELL.evaluate(
+        String.format("[scalar: { %1$s -> [%2$s].flatten() }, "
+                + "collection: { %1$s -> (%1$s.collect{%3$s}).toSet() }, "
+                + "filter: { %1$s, securedObjects -> %1$s.removeIf{!securedObjects.contains(%3$s)} }]",
+            identifier, selector, elementSelector));
+    selectScalar = (Closure<Collection<Object>>) closures.get("scalar");
+    selectCollection = (Closure<Collection<Object>>) closures.get("collection");
+    filterCollection = closures.get("filter");
+  }
+
+  /**
+   * @return secured objects selected from a single argument, nested collections are flattened
+   */
+  Collection<Object> selectFromScalar(Object arg) {
+    return selectScalar.call(arg);
+  }
+
+  /**
+   * @return distinct secured objects selected from every element of the collection
+   */
+  Collection<Object> selectFromCollection(Collection<?> arg) {
+    return selectCollection.call(arg);
+  }
+
+  /**
+   * Removes elements which secured objects are not among the allowed ones.
+   */
+  void filterCollection(Collection<?> arg, Collection<Object> allowedSecuredObjects) {
+    filterCollection.call(arg, allowedSecuredObjects);
+  }
+}
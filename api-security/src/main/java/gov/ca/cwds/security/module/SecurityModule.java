@@ -3,6 +3,7 @@ package gov.ca.cwds.security.module;
 import com.google.inject.AbstractModule;
 import com.google.inject.Injector;
 import com.google.inject.Key;
+import com.google.inject.Provider;
 import com.google.inject.TypeLiteral;
 import com.google.inject.matcher.Matchers;
 import com.google.inject.multibindings.Multibinder;
@@ -26,6 +27,8 @@ public class SecurityModule extends AbstractModule {
   private Map<String, Class<? extends BaseAuthorizer>> authorizers;
   private Set<Class<? extends StaticAuthorizer>> staticAuthorizers;
   private static InjectorProvider injectorProvider;
+  private static final AuthorizationMetrics AUTHORIZATION_METRICS = new AuthorizationMetrics();
+  private static volatile StaticAuthorizersBinding staticAuthorizersBinding;
 
   public SecurityModule(InjectorProvider injector) {
     injectorProvider = injector;
@@ -41,8 +44,24 @@ public class SecurityModule extends AbstractModule {
     return injectorProvider.getInjector();
   }
 
+  /**
+   * @return latency and denials of {@code @Authorize} checks per permission
+   */
+  public static AuthorizationMetrics getAuthorizationMetrics() {
+    return AUTHORIZATION_METRICS;
+  }
+
+  /**
+   * The binding is looked up once per injector, authorizers are provided on every call.
+   */
   public static Set<StaticAuthorizer> getStaticAuthorizers() {
-    return injectorProvider.getInjector().getInstance(Key.get(setOf(StaticAuthorizer.class)));
+    Injector injector = injectorProvider.getInjector();
+    StaticAuthorizersBinding binding = staticAuthorizersBinding;
+    if (binding == null || binding.injector != injector) {
+      binding = new StaticAuthorizersBinding(injector);
+      staticAuthorizersBinding = binding;
+    }
+    return binding.provider.get();
   }
 
   @SuppressWarnings("unchecked")
@@ -77,4 +96,15 @@ public class SecurityModule extends AbstractModule {
     staticAuthorizers.add(clazz);
     return this;
   }
+
+  private static class StaticAuthorizersBinding {
+
+    private final Injector injector;
+    private final Provider<Set<StaticAuthorizer>> provider;
+
+    private StaticAuthorizersBinding(Injector injector) {
+      this.injector = injector;
+      this.provider = injector.getProvider(Key.get(setOf(StaticAuthorizer.class)));
+    }
+  }
 }
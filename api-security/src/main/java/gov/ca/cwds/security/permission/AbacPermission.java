@@ -1,14 +1,9 @@
 package gov.ca.cwds.security.permission;
 
-import com.google.inject.Key;
-import com.google.inject.name.Names;
 import gov.ca.cwds.security.authorizer.Authorizer;
-import gov.ca.cwds.security.module.SecurityModule;
 import java.util.Collection;
 import org.apache.shiro.authz.Permission;
 
-import java.util.Optional;
-
 /**
  * Created by dmitry.rudenko on 9/25/2017.
  */
@@ -17,26 +12,17 @@ public class AbacPermission implements Permission {
   private Object securedObject;
   private Authorizer authorizer;
 
-  private static final String SUPPORTED_PERMISSION_PATTERN = "^[^:,*]+:[^:,*]+:[^:,*]+$";
-  private static final String PARTS_DELIMITER = ":";
-
   public AbacPermission() {
 
   }
 
+  /**
+   * @throws IllegalArgumentException if the permission is not an ABAC one or has no authorizer
+   */
   public AbacPermission(String permissionString) {
-    if (permissionString.matches(SUPPORTED_PERMISSION_PATTERN)) {
-      String[] parts = permissionString.split(PARTS_DELIMITER);
-      String handlerName = parts[0] + PARTS_DELIMITER + parts[1];
-      Optional<Authorizer> permissionHandler = findPermissionHandler(handlerName);
-      if (!permissionHandler.isPresent()) {
-        throw new IllegalArgumentException();
-      }
-      this.securedObject = parts[2];
-      this.authorizer = permissionHandler.get();
-    } else {
-      throw new IllegalArgumentException();
-    }
+    AbacPermissionRegistry.Entry entry = AbacPermissionRegistry.lookup(permissionString);
+    this.securedObject = entry.getSecuredObject();
+    this.authorizer = entry.getAuthorizer();
   }
 
   public Object getSecuredObject() {
@@ -79,13 +65,4 @@ public class AbacPermission implements Permission {
       securedCollection.addAll(filteredCollection);
     }
   }
-
-  private Optional<Authorizer> findPermissionHandler(String name) {
-    try {
-      Authorizer authorizer = SecurityModule.injector().getInstance(Key.get(Authorizer.class, Names.named(name)));
-      return Optional.of(authorizer);
-    } catch (Exception e) {
-      return Optional.empty();
-    }
-  }
 }
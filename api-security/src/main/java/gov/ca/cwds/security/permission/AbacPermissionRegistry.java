@@ -0,0 +1,111 @@
+package gov.ca.cwds.security.permission;
+
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.name.Names;
+import gov.ca.cwds.security.authorizer.Authorizer;
+import gov.ca.cwds.security.module.SecurityModule;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Authorizer bindings of ABAC permissions, looked up in the injector on first use of a
+ * {@code type:action} handler, so ABAC checks don't look bindings up in the injector. The secured
+ * object part is parsed per call, so the registry holds one entry per handler whatever the
+ * secured objects are. Entries are dropped when the security module gets another injector.
+ *
+ * <p>Authorizers are still obtained from their binding provider, so their scopes are kept.</p>
+ */
+final class AbacPermissionRegistry {
+
+  private static final Pattern SUPPORTED_PERMISSION_PATTERN =
+      Pattern.compile("^[^:,*]+:[^:,*]+:[^:,*]+$");
+  private static final char PARTS_DELIMITER = ':';
+
+  private static final Provider<Authorizer> UNSUPPORTED = () -> {
+    throw new IllegalArgumentException();
+  };
+
+  private static volatile AbacPermissionRegistry current;
+
+  private final Injector injector;
+  private final ConcurrentMap<String, Provider<Authorizer>> authorizerProviders =
+      new ConcurrentHashMap<>();
+
+  private AbacPermissionRegistry(Injector injector) {
+    this.injector = injector;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the permission is not an ABAC one or has no authorizer
+   */
+  static Entry lookup(String permissionString) {
+    if (!SUPPORTED_PERMISSION_PATTERN.matcher(permissionString).matches()) {
+      throw new IllegalArgumentException();
+    }
+    int securedObjectStart = permissionString.lastIndexOf(PARTS_DELIMITER);
+    String handlerName = permissionString.substring(0, securedObjectStart);
+    AbacPermissionRegistry registry = registry();
+    Provider<Authorizer> authorizerProvider =
+        registry.authorizerProviders.computeIfAbsent(handlerName, registry::authorizerProvider);
+    if (authorizerProvider == UNSUPPORTED) {
+      throw new IllegalArgumentException();
+    }
+    return new Entry(permissionString.substring(securedObjectStart + 1), authorizerProvider);
+  }
+
+  /**
+   * @return number of handlers known to the registry of the current injector
+   */
+  static int size() {
+    return registry().authorizerProviders.size();
+  }
+
+  private static AbacPermissionRegistry registry() {
+    Injector injector;
+    try {
+      injector = SecurityModule.injector();
+    } catch (Exception e) {
+      throw new IllegalArgumentException(e);
+    }
+    AbacPermissionRegistry registry = current;
+    if (registry == null || registry.injector != injector) {
+      registry = new AbacPermissionRegistry(injector);
+      current = registry;
+    }
+    return registry;
+  }
+
+  private Provider<Authorizer> authorizerProvider(String handlerName) {
+    try {
+      return injector.getProvider(Key.get(Authorizer.class, Names.named(handlerName)));
+    } catch (Exception e) {
+      return UNSUPPORTED;
+    }
+  }
+
+  static final class Entry {
+
+    private final String securedObject;
+    private final Provider<Authorizer> authorizerProvider;
+
+    private Entry(String securedObject, Provider<Authorizer> authorizerProvider) {
+      this.securedObject = securedObject;
+      this.authorizerProvider = authorizerProvider;
+    }
+
+    String getSecuredObject() {
+      return securedObject;
+    }
+
+    Authorizer getAuthorizer() {
+      try {
+        return authorizerProvider.get();
+      } catch (Exception e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+  }
+}
@@ -1,10 +1,11 @@
 package gov.ca.cwds.security.realm;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import gov.ca.cwds.security.PerryShiroToken;
 import gov.ca.cwds.security.authorizer.StaticAuthorizer;
 import gov.ca.cwds.security.module.SecurityModule;
 import gov.ca.cwds.security.permission.AbacPermission;
+import gov.ca.cwds.utils.JsonUtils;
 import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
@@ -18,9 +19,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
+ * Base realm mapping validated tokens to {@link PerryAccount}.
+ * <p>
+ * With {@code tokenCacheEnabled} authentication info of up to {@code tokenCacheMaximumSize}
+ * tokens is kept for {@code tokenCacheMaxAge} milliseconds, but not past the token expiration
+ * time, so repeated requests with the same token are not validated again.
+ *
  * @author CWDS CALS API Team
  */
 public abstract class AbstractRealm extends AuthorizingRealm {
@@ -32,7 +43,12 @@ public abstract class AbstractRealm extends AuthorizingRealm {
    */
   private static final int PRINCIPALS_COUNT = 3;
 
-  private ObjectMapper objectMapper;
+  private ObjectReader perryAccountReader;
+
+  private boolean tokenCacheEnabled;
+  private int tokenCacheMaximumSize = 10000;
+  private long tokenCacheMaxAge = 60000;
+  private TokenAuthenticationCache tokenCache;
 
   public AbstractRealm() {
     setAuthenticationTokenClass(PerryShiroToken.class);
@@ -41,7 +57,10 @@ public abstract class AbstractRealm extends AuthorizingRealm {
   @Override
   protected void onInit() {
     super.onInit();
-    objectMapper = new ObjectMapper();
+    perryAccountReader = JsonUtils.reader(PerryAccount.class);
+    if (tokenCacheEnabled) {
+      tokenCache = new TokenAuthenticationCache(tokenCacheMaximumSize, tokenCacheMaxAge);
+    }
   }
 
   /**
@@ -65,10 +84,114 @@ public abstract class AbstractRealm extends AuthorizingRealm {
   @Override
   protected AuthenticationInfo doGetAuthenticationInfo(AuthenticationToken token) {
     String tokenString = ((PerryShiroToken) token).getToken();
-    String json = validate(tokenString);
+    if (tokenCache == null) {
+      return authenticate(tokenString, validate(tokenString));
+    }
+    AuthenticationInfo authenticationInfo = tokenCache.get(tokenString);
+    if (authenticationInfo == null) {
+      authenticationInfo = authenticate(tokenString, validateExpiring(tokenString));
+    }
+    return authenticationInfo;
+  }
+
+  /**
+   * Authenticates several tokens carried by one request. Cached tokens are not validated again,
+   * the rest are validated together by {@link #validateAllExpiring(List)}.
+   *
+   * @param tokens tokens to authenticate
+   * @return authentication info for every token in iteration order
+   * @throws AuthenticationException if any of the tokens is not valid
+   */
+  public List<AuthenticationInfo> getAuthenticationInfos(Collection<String> tokens) {
+    Map<String, AuthenticationInfo> authenticationInfos = new HashMap<>();
+    List<String> tokensToValidate = new ArrayList<>();
+    for (String token : tokens) {
+      AuthenticationInfo authenticationInfo = tokenCache == null ? null : tokenCache.get(token);
+      if (authenticationInfo != null) {
+        authenticationInfos.put(token, authenticationInfo);
+      } else if (!tokensToValidate.contains(token)) {
+        tokensToValidate.add(token);
+      }
+    }
+    List<ValidatedToken> validatedTokens = validateAllExpiring(tokensToValidate);
+    for (int i = 0; i < tokensToValidate.size(); i++) {
+      String token = tokensToValidate.get(i);
+      authenticationInfos.put(token, authenticate(token, validatedTokens.get(i)));
+    }
+    List<AuthenticationInfo> result = new ArrayList<>(tokens.size());
+    tokens.forEach(token -> result.add(authenticationInfos.get(token)));
+    return result;
+  }
+
+  private AuthenticationInfo authenticate(String token, ValidatedToken validatedToken) {
+    AuthenticationInfo authenticationInfo = authenticate(token, validatedToken.getJson());
+    if (tokenCache != null) {
+      long maxAgeTime = System.currentTimeMillis() + tokenCacheMaxAge;
+      tokenCache.put(token, authenticationInfo,
+          Math.min(maxAgeTime, validatedToken.getExpirationTime()));
+    }
+    return authenticationInfo;
+  }
 
+  private AuthenticationInfo authenticate(String token, String json) {
     PerryAccount perryAccount = map(json);
-    return getAuthenticationInfo(perryAccount, tokenString);
+    return getAuthenticationInfo(perryAccount, token);
+  }
+
+  /**
+   * Validates a token which is going to be cached. Tokens don't expire by default, override for
+   * tokens carrying their expiration time.
+   *
+   * @param token token to validate
+   * @return result of validation and time in milliseconds the token expires at
+   */
+  protected ValidatedToken validateExpiring(String token) throws AuthenticationException {
+    return new ValidatedToken(validate(token), Long.MAX_VALUE);
+  }
+
+  /**
+   * Validates a batch of tokens one by one, override for realms validating them in parallel.
+   *
+   * @param tokens tokens to validate
+   * @return validated tokens in iteration order
+   * @throws AuthenticationException if any of the tokens is not valid
+   */
+  protected List<ValidatedToken> validateAllExpiring(List<String> tokens)
+      throws AuthenticationException {
+    List<ValidatedToken> validatedTokens = new ArrayList<>(tokens.size());
+    tokens.forEach(token -> validatedTokens.add(validateExpiring(token)));
+    return validatedTokens;
+  }
+
+  /**
+   * @return hits, misses, hit rate, evictions and size of the token cache, empty if it's disabled
+   */
+  public Map<String, Number> getTokenCacheMetrics() {
+    return tokenCache == null ? Collections.emptyMap() : tokenCache.getMetrics();
+  }
+
+  public boolean isTokenCacheEnabled() {
+    return tokenCacheEnabled;
+  }
+
+  public void setTokenCacheEnabled(boolean tokenCacheEnabled) {
+    this.tokenCacheEnabled = tokenCacheEnabled;
+  }
+
+  public int getTokenCacheMaximumSize() {
+    return tokenCacheMaximumSize;
+  }
+
+  public void setTokenCacheMaximumSize(int tokenCacheMaximumSize) {
+    this.tokenCacheMaximumSize = tokenCacheMaximumSize;
+  }
+
+  public long getTokenCacheMaxAge() {
+    return tokenCacheMaxAge;
+  }
+
+  public void setTokenCacheMaxAge(long tokenCacheMaxAge) {
+    this.tokenCacheMaxAge = tokenCacheMaxAge;
   }
 
   /**
@@ -80,7 +203,7 @@ public abstract class AbstractRealm extends AuthorizingRealm {
    */
   protected PerryAccount map(String json) {
     try {
-      return objectMapper.readValue(json, PerryAccount.class);
+      return perryAccountReader.readValue(json);
     } catch (Exception e) {
       LOGGER.warn(e.getMessage(), e);
       // Mapping doesn't apply
@@ -97,4 +220,25 @@ public abstract class AbstractRealm extends AuthorizingRealm {
     return new SimpleAuthenticationInfo(principalCollection, "N/A");
   }
 
+  /**
+   * Authorization data of a validated token along with its expiration time.
+   */
+  protected static final class ValidatedToken {
+
+    private final String json;
+    private final long expirationTime;
+
+    public ValidatedToken(String json, long expirationTime) {
+      this.json = json;
+      this.expirationTime = expirationTime;
+    }
+
+    public String getJson() {
+      return json;
+    }
+
+    public long getExpirationTime() {
+      return expirationTime;
+    }
+  }
 }
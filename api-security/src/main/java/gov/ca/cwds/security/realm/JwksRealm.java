@@ -0,0 +1,121 @@
+package gov.ca.cwds.security.realm;
+
+import gov.ca.cwds.security.PerryShiroToken;
+import gov.ca.cwds.security.jwt.JwtConfiguration;
+import java.util.Collection;
+import java.util.List;
+import org.apache.shiro.authc.AuthenticationException;
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.AuthenticationToken;
+
+/**
+ * Validates Perry JWTs locally with the public keys Perry publishes at {@code /authn/jwks}, so
+ * authentication doesn't depend on Perry availability. Keys are cached and reloaded every
+ * {@code jwksRefreshInterval} milliseconds.
+ * <p>
+ * Encrypted tokens still need the encryption key from the local keystore, see {@link JwtRealm}
+ * properties. If {@code validationUri} is set, tokens are also checked against Perry in background
+ * every {@code revocationCheckInterval} milliseconds and tokens revoked by Perry are denied.
+ */
+public class JwksRealm extends JwtRealm {
+
+  private String jwksUri;
+  private long jwksRefreshInterval = 300000;
+  private String validationUri;
+  private long revocationCheckInterval = 60000;
+  private long revocationMaxIdle = 1800000;
+
+  TokenRevocationChecker revocationChecker;
+
+  @Override
+  protected void onInit() {
+    super.onInit();
+    if (validationUri != null) {
+      revocationChecker =
+          new TokenRevocationChecker(validationUri, revocationCheckInterval, revocationMaxIdle);
+      revocationChecker.start();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    super.destroy();
+    if (revocationChecker != null) {
+      revocationChecker.stop();
+    }
+  }
+
+  @Override
+  protected JwtConfiguration jwtConfiguration() {
+    JwtConfiguration jwtConfiguration = super.jwtConfiguration();
+    jwtConfiguration.setJwksUri(jwksUri);
+    jwtConfiguration.setJwksRefreshInterval(jwksRefreshInterval);
+    return jwtConfiguration;
+  }
+
+  /**
+   * Revocation is checked on every request, cached authentication included.
+   */
+  @Override
+  protected AuthenticationInfo doGetAuthenticationInfo(AuthenticationToken token) {
+    AuthenticationInfo authenticationInfo = super.doGetAuthenticationInfo(token);
+    checkRevoked(((PerryShiroToken) token).getToken());
+    return authenticationInfo;
+  }
+
+  @Override
+  public List<AuthenticationInfo> getAuthenticationInfos(Collection<String> tokens) {
+    List<AuthenticationInfo> authenticationInfos = super.getAuthenticationInfos(tokens);
+    tokens.forEach(this::checkRevoked);
+    return authenticationInfos;
+  }
+
+  private void checkRevoked(String token) {
+    if (revocationChecker != null && revocationChecker.isRevoked(token)) {
+      throw new AuthenticationException("Token is revoked");
+    }
+  }
+
+  public String getJwksUri() {
+    return jwksUri;
+  }
+
+  public void setJwksUri(String jwksUri) {
+    this.jwksUri = jwksUri;
+  }
+
+  public long getJwksRefreshInterval() {
+    return jwksRefreshInterval;
+  }
+
+  public void setJwksRefreshInterval(long jwksRefreshInterval) {
+    this.jwksRefreshInterval = jwksRefreshInterval;
+  }
+
+  public String getValidationUri() {
+    return validationUri;
+  }
+
+  public void setValidationUri(String validationUri) {
+    this.validationUri = validationUri;
+  }
+
+  public long getRevocationCheckInterval() {
+    return revocationCheckInterval;
+  }
+
+  public void setRevocationCheckInterval(long revocationCheckInterval) {
+    this.revocationCheckInterval = revocationCheckInterval;
+  }
+
+  /**
+   * @return milliseconds after which a token which is not presented any more is not checked
+   */
+  public long getRevocationMaxIdle() {
+    return revocationMaxIdle;
+  }
+
+  public void setRevocationMaxIdle(long revocationMaxIdle) {
+    this.revocationMaxIdle = revocationMaxIdle;
+  }
+}
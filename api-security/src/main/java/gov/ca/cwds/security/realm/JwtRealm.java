@@ -1,8 +1,13 @@
 package gov.ca.cwds.security.realm;
 
+import com.nimbusds.jwt.JWTClaimsSet;
 import gov.ca.cwds.security.jwt.JwtConfiguration;
 import gov.ca.cwds.security.jwt.JwtService;
+import gov.ca.cwds.security.jwt.JwtValidationResult;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.shiro.authc.AuthenticationException;
+import org.apache.shiro.util.Destroyable;
 
 /**
  * Implementation of JWT processing realm. This realm validates JWT token and extract identity claim
@@ -10,8 +15,10 @@ import org.apache.shiro.authc.AuthenticationException;
  * <p>
  * During authentication process this realm puts user name as primary credential and mapped identity
  * claim as secondary. So authorization process will expect 2 principals.
+ * <p>
+ * Batches of tokens are validated in parallel by {@code validationParallelism} threads.
  */
-public class JwtRealm extends AbstractRealm {
+public class JwtRealm extends AbstractRealm implements Destroyable {
 
   private String keyStorePath;
   private String keyStoreAlias;
@@ -21,8 +28,10 @@ public class JwtRealm extends AbstractRealm {
   private String encKeyAlias;
   private String encKeyPassword;
   private String encryptionMethod;
+  private String signingAlgorithm = "RS256";
   private String tokenIssuer;
   private boolean headlessToken = true;
+  private int validationParallelism;
 
   JwtService jwtService;
 
@@ -32,13 +41,22 @@ public class JwtRealm extends AbstractRealm {
     jwtService = new JwtService(jwtConfiguration());
   }
 
+  @Override
+  public void destroy() {
+    if (jwtService != null) {
+      jwtService.close();
+    }
+  }
+
   protected JwtConfiguration jwtConfiguration() {
     JwtConfiguration jwtConfiguration = new JwtConfiguration();
     jwtConfiguration.setKeyStore(new JwtConfiguration.KeyStoreConfiguration());
     jwtConfiguration.setEncryptionMethod(encryptionMethod);
+    jwtConfiguration.setSigningAlgorithm(signingAlgorithm);
     jwtConfiguration.setEncryptionEnabled(useEncryption);
     jwtConfiguration.setIssuer(tokenIssuer);
     jwtConfiguration.setHeadless(headlessToken);
+    jwtConfiguration.setValidationParallelism(validationParallelism);
     jwtConfiguration.getKeyStore().setPassword(keyStorePassword);
     jwtConfiguration.getKeyStore().setAlias(keyStoreAlias);
     jwtConfiguration.getKeyStore().setPath(keyStorePath);
@@ -150,6 +168,14 @@ public class JwtRealm extends AbstractRealm {
     this.encryptionMethod = encryptionMethod;
   }
 
+  public String getSigningAlgorithm() {
+    return signingAlgorithm;
+  }
+
+  public void setSigningAlgorithm(String signingAlgorithm) {
+    this.signingAlgorithm = signingAlgorithm;
+  }
+
   public boolean isHeadlessToken() {
     return headlessToken;
   }
@@ -158,6 +184,45 @@ public class JwtRealm extends AbstractRealm {
     this.headlessToken = headlessToken;
   }
 
+  public int getValidationParallelism() {
+    return validationParallelism;
+  }
+
+  public void setValidationParallelism(int validationParallelism) {
+    this.validationParallelism = validationParallelism;
+  }
+
+  /**
+   * Takes the expiration time from the claims of the validated token, so the token is decrypted
+   * and parsed once.
+   */
+  @Override
+  protected ValidatedToken validateExpiring(String token) {
+    try {
+      JWTClaimsSet claims = jwtService.validateAndGetClaims(token);
+      return new ValidatedToken(claims.getStringClaim(JwtService.IDENTITY_CLAIM),
+          claims.getExpirationTime().getTime());
+    } catch (Exception e) {
+      throw new AuthenticationException(e);
+    }
+  }
+
+  /**
+   * Validates the tokens in parallel, see {@link JwtService#validateAll(java.util.Collection)}.
+   */
+  @Override
+  protected List<ValidatedToken> validateAllExpiring(List<String> tokens) {
+    List<ValidatedToken> validatedTokens = new ArrayList<>(tokens.size());
+    for (JwtValidationResult result : jwtService.validateAll(tokens)) {
+      if (!result.isValid()) {
+        throw new AuthenticationException(result.getError());
+      }
+      validatedTokens.add(
+          new ValidatedToken(result.getIdentity(), result.getExpirationTime().getTime()));
+    }
+    return validatedTokens;
+  }
+
   protected String validate(String token)  {
     try {
       return jwtService.validate(token);
@@ -1,8 +1,12 @@
 package gov.ca.cwds.security.realm;
 
+import gov.ca.cwds.security.HttpClientPool;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.shiro.authc.AuthenticationException;
-import org.glassfish.jersey.client.ClientProperties;
-import org.glassfish.jersey.client.JerseyClientBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,6 +17,9 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 /**
+ * Validates tokens by Perry over keep-alive connections of {@link HttpClientPool#getShared()}.
+ * Concurrent validations of the same token share a single Perry call.
+ *
  * @author CWDS CALS API Team
  */
 public class PerryRealm extends AbstractRealm {
@@ -23,6 +30,11 @@ public class PerryRealm extends AbstractRealm {
 
   private Client client;
 
+  private final ConcurrentMap<String, CompletableFuture<String>> inFlightValidations =
+      new ConcurrentHashMap<>();
+  private final LongAdder validations = new LongAdder();
+  private final LongAdder coalescedValidations = new LongAdder();
+
 
   public String getValidationUri() {
     return validationUri;
@@ -32,14 +44,49 @@ public class PerryRealm extends AbstractRealm {
     this.validationUri = validationUri;
   }
 
+  /**
+   * @return amount of Perry calls made
+   */
+  public long getValidationCount() {
+    return validations.sum();
+  }
+
+  /**
+   * @return amount of validations served by a call already in flight
+   */
+  public long getCoalescedValidationCount() {
+    return coalescedValidations.sum();
+  }
+
   @Override
   protected String validate(String token) throws AuthenticationException {
+    CompletableFuture<String> validation = new CompletableFuture<>();
+    CompletableFuture<String> inFlight = inFlightValidations.putIfAbsent(token, validation);
+    if (inFlight != null) {
+      coalescedValidations.increment();
+      return join(inFlight);
+    }
+    try {
+      String identity = callPerry(token);
+      validation.complete(identity);
+      return identity;
+    } catch (RuntimeException e) {
+      validation.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlightValidations.remove(token, validation);
+    }
+  }
+
+  private String callPerry(String token) {
+    validations.increment();
     try {
       WebTarget target = client.target(validationUri).queryParam("token", token);
       Invocation.Builder invocation = target.request(MediaType.APPLICATION_JSON);
       Response response = invocation.get();
       int status = response.getStatus();
       if (status != 200) {
+        response.close();
         throw new AuthenticationException("Failed : HTTP error code : "
             + status);
       }
@@ -50,12 +97,20 @@ public class PerryRealm extends AbstractRealm {
     }
   }
 
+  private static String join(CompletableFuture<String> validation) {
+    try {
+      return validation.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof AuthenticationException) {
+        throw (AuthenticationException) e.getCause();
+      }
+      throw new AuthenticationException(e.getCause());
+    }
+  }
+
   @Override
   protected void onInit() {
     super.onInit();
-    JerseyClientBuilder clientBuilder = new JerseyClientBuilder()
-        .property(ClientProperties.CONNECT_TIMEOUT, 5000)
-        .property(ClientProperties.READ_TIMEOUT, 20000);
-    client = clientBuilder.build();
+    client = HttpClientPool.getShared().getClient();
   }
 }
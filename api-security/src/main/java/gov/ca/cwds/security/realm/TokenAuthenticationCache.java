@@ -0,0 +1,90 @@
+package gov.ca.cwds.security.realm;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.shiro.authc.AuthenticationInfo;
+
+/**
+ * Authentication info of recently validated tokens, keyed by SHA-256 of the token. Entries live
+ * for {@code maxAge} milliseconds at most and are not served after the expiration time of their
+ * token. When {@code maximumSize} is reached least recently used entries are evicted.
+ */
+class TokenAuthenticationCache {
+
+  private static final HashFunction SHA_256 = Hashing.sha256();
+
+  private final Cache<HashCode, Entry> entries;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  TokenAuthenticationCache(int maximumSize, long maxAge) {
+    entries = CacheBuilder.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(maxAge, TimeUnit.MILLISECONDS)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * @return cached authentication info or null if the token is not cached or expired
+   */
+  AuthenticationInfo get(String token) {
+    HashCode key = key(token);
+    Entry entry = entries.getIfPresent(key);
+    if (entry != null) {
+      if (entry.expirationTime > System.currentTimeMillis()) {
+        hits.increment();
+        return entry.authenticationInfo;
+      }
+      entries.asMap().remove(key, entry);
+    }
+    misses.increment();
+    return null;
+  }
+
+  void put(String token, AuthenticationInfo authenticationInfo, long expirationTime) {
+    if (expirationTime > System.currentTimeMillis()) {
+      entries.put(key(token), new Entry(authenticationInfo, expirationTime));
+    }
+  }
+
+  /**
+   * @return hits, misses, hit rate, evictions and size
+   */
+  Map<String, Number> getMetrics() {
+    long hitCount = hits.sum();
+    long requestCount = hitCount + misses.sum();
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("hits", hitCount);
+    metrics.put("misses", requestCount - hitCount);
+    metrics.put("hitRate", requestCount == 0 ? 0.0 : (double) hitCount / requestCount);
+    metrics.put("evictions", entries.stats().evictionCount());
+    metrics.put("size", entries.size());
+    return metrics;
+  }
+
+  private static HashCode key(String token) {
+    return SHA_256.hashString(token, UTF_8);
+  }
+
+  private static class Entry {
+
+    private final AuthenticationInfo authenticationInfo;
+    private final long expirationTime;
+
+    private Entry(AuthenticationInfo authenticationInfo, long expirationTime) {
+      this.authenticationInfo = authenticationInfo;
+      this.expirationTime = expirationTime;
+    }
+  }
+}
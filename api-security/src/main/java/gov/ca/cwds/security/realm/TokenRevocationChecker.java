@@ -0,0 +1,118 @@
+package gov.ca.cwds.security.realm;
+
+import gov.ca.cwds.security.HttpClientPool;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks tokens validated locally against Perry in background, so revocation doesn't cost a Perry
+ * round trip per request.
+ *
+ * <p>Every token presented within {@code maxIdle} milliseconds is validated by Perry once per
+ * {@code checkInterval}. Tokens rejected by Perry are denied from then on. Tokens which are not
+ * presented for {@code maxIdle} milliseconds are forgotten. Perry being unavailable doesn't revoke
+ * anything.</p>
+ */
+class TokenRevocationChecker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevocationChecker.class);
+
+  private final String validationUri;
+  private final long checkInterval;
+  private final long maxIdle;
+
+  private final Map<String, Long> activeTokens = new ConcurrentHashMap<>();
+  private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+  private Client client;
+  private ScheduledExecutorService executor;
+
+  TokenRevocationChecker(String validationUri, long checkInterval, long maxIdle) {
+    this.validationUri = validationUri;
+    this.checkInterval = checkInterval;
+    this.maxIdle = maxIdle;
+  }
+
+  void start() {
+    client = HttpClientPool.getShared().getClient();
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "perry-token-revocation-checker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(this::checkQuietly, checkInterval, checkInterval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Registers the token for the background check.
+   *
+   * @return true if Perry has rejected the token
+   */
+  boolean isRevoked(String token) {
+    long now = System.currentTimeMillis();
+    if (revokedTokens.containsKey(token)) {
+      revokedTokens.put(token, now);
+      return true;
+    }
+    activeTokens.put(token, now);
+    return false;
+  }
+
+  void check() {
+    long now = System.currentTimeMillis();
+    revokedTokens.values().removeIf(lastSeen -> now - lastSeen > maxIdle);
+    Iterator<Map.Entry<String, Long>> iterator = activeTokens.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, Long> entry = iterator.next();
+      if (now - entry.getValue() > maxIdle) {
+        iterator.remove();
+      } else if (isRejected(entry.getKey())) {
+        revokedTokens.put(entry.getKey(), entry.getValue());
+        iterator.remove();
+      }
+    }
+  }
+
+  private boolean isRejected(String token) {
+    try {
+      Response response = client.target(validationUri).queryParam("token", token)
+          .request(MediaType.APPLICATION_JSON).get();
+      int status = response.getStatus();
+      response.close();
+      if (status == Response.Status.UNAUTHORIZED.getStatusCode()
+          || status == Response.Status.FORBIDDEN.getStatusCode()) {
+        return true;
+      }
+      if (status != Response.Status.OK.getStatusCode()) {
+        LOGGER.warn("Token revocation is not checked, HTTP error code : {}", status);
+      }
+    } catch (Exception e) {
+      LOGGER.warn("Token revocation is not checked: {}", e.getMessage());
+    }
+    return false;
+  }
+
+  private void checkQuietly() {
+    try {
+      check();
+    } catch (Exception e) {
+      LOGGER.error("Token revocation check failed", e);
+    }
+  }
+}
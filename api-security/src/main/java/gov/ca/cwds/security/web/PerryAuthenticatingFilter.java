@@ -2,6 +2,7 @@ package gov.ca.cwds.security.web;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import gov.ca.cwds.security.PerryShiroToken;
+import gov.ca.cwds.security.module.AuthorizationDecisions;
 import gov.ca.cwds.security.utils.Utils;
 import org.apache.shiro.SecurityUtils;
 import org.apache.shiro.authc.AuthenticationException;
@@ -12,6 +13,7 @@ import org.apache.shiro.web.util.WebUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.FilterChain;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
@@ -116,6 +118,20 @@ public class PerryAuthenticatingFilter extends AuthenticatingFilter {
     return super.onLoginSuccess(token, subject, request, response);
   }
 
+  /**
+   * Authorization decisions are reused within the request.
+   */
+  @Override
+  protected void executeChain(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws Exception {
+    AuthorizationDecisions.begin();
+    try {
+      super.executeChain(request, response, chain);
+    } finally {
+      AuthorizationDecisions.end();
+    }
+  }
+
   private boolean isNullOrEmpty(String value) {
     return value == null || value.isEmpty();
   }
@@ -36,7 +36,7 @@ public abstract class AbstractApiSecurityTest {
     initInjector();
   }
 
-  void initInjector() throws Exception {
+  protected void initInjector() throws Exception {
     Injector injector = Guice.createInjector(new TestModule());
     injector.injectMembers(this);
     Field field = SecurityModule.class.getDeclaredField("injectorProvider");
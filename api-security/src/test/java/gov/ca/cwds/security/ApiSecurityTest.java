@@ -1,6 +1,9 @@
 package gov.ca.cwds.security;
 
 import com.google.inject.Inject;
+import gov.ca.cwds.security.module.AuthorizationDecisions;
+import gov.ca.cwds.security.module.AuthorizationMetrics;
+import gov.ca.cwds.security.module.SecurityModule;
 import gov.ca.cwds.testapp.domain.Case;
 import gov.ca.cwds.testapp.domain.CaseDTO;
 import gov.ca.cwds.testapp.service.TestService;
@@ -162,4 +165,46 @@ public class ApiSecurityTest extends AbstractApiSecurityTest {
   public void testDirectCheckUnauthorized() {
     SecurityUtils.getSubject().checkPermission("case:read:2");
   }
+
+  @Test
+  public void testDecisionReusedWithinRequest() {
+    AuthorizationMetrics metrics = SecurityModule.getAuthorizationMetrics();
+    metrics.reset();
+    testService.testArg("1");
+    assert metrics.getReusedDecisions() == 0;
+
+    AuthorizationDecisions.begin();
+    try {
+      testService.testArg("1");
+      testService.testArg("1");
+    } finally {
+      AuthorizationDecisions.end();
+    }
+    assert metrics.getReusedDecisions() == 1;
+    assert metrics.getPermissions().get("case:read:id").get("checks").longValue() == 3;
+  }
+
+  @Test
+  public void testDenialReusedWithinRequest() {
+    AuthorizationMetrics metrics = SecurityModule.getAuthorizationMetrics();
+    metrics.reset();
+    List<UnauthorizedException> denials = new ArrayList<>();
+    AuthorizationDecisions.begin();
+    try {
+      for (int i = 0; i < 2; i++) {
+        try {
+          testService.testArg("2");
+          assert false;
+        } catch (UnauthorizedException e) {
+          denials.add(e);
+        }
+      }
+    } finally {
+      AuthorizationDecisions.end();
+    }
+    assert metrics.getReusedDecisions() == 1;
+    assert metrics.getPermissions().get("case:read:id").get("denials").longValue() == 2;
+    assert denials.get(1) != denials.get(0);
+    assert denials.get(1).getCause() == denials.get(0);
+  }
 }
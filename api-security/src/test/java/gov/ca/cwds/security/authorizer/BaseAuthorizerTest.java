@@ -4,7 +4,18 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import gov.ca.cwds.testapp.domain.Case;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.apache.shiro.authz.AuthorizationException;
+import org.apache.shiro.mgt.DefaultSecurityManager;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
 import org.junit.Test;
 
 /**
@@ -79,4 +90,51 @@ public class BaseAuthorizerTest {
   public void check_exception_whenUnknownClassInput() {
     concreteAuthorizer.check(new Integer("100"));
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void filter_usesBulkCheck_whenOverridden() {
+    final AtomicInteger bulkChecks = new AtomicInteger();
+    final BaseAuthorizer<Case, Long> bulkAuthorizer = new CaseAuthorizer() {
+      @Override
+      protected Set<Long> checkIds(Collection<Long> ids) {
+        bulkChecks.incrementAndGet();
+        return ids.stream().filter(id -> id % 2 == 0).collect(Collectors.toSet());
+      }
+
+      @Override
+      public boolean checkId(Long id) {
+        throw new AssertionError();
+      }
+    };
+
+    final Collection filtered = bulkAuthorizer.filter(new ArrayList(Arrays.asList(1L, 2L, null, 4L)));
+
+    assertThat(filtered, is(Arrays.asList(2L, 4L)));
+    assertThat(bulkChecks.get(), is(1));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void filter_keepsOrderAndSubject_whenParallelCheck() {
+    final Subject subject = new Subject.Builder(new DefaultSecurityManager()).buildSubject();
+    final BaseAuthorizer<Case, Long> parallelAuthorizer = new CaseAuthorizer() {
+      @Override
+      protected boolean isParallelCheck() {
+        return true;
+      }
+
+      @Override
+      public boolean checkInstance(Case instance) {
+        return ThreadContext.getSubject() == subject && instance.getId() % 2 == 0;
+      }
+    };
+    final List<Case> cases = LongStream.range(0, 100).mapToObj(id -> new Case(id, "name"))
+        .collect(Collectors.toList());
+
+    final Collection<Case> filtered = subject.execute(() -> parallelAuthorizer.filter(cases));
+
+    assertThat(filtered.size(), is(50));
+    assertThat(filtered.iterator().next().getId(), is(0L));
+  }
 }
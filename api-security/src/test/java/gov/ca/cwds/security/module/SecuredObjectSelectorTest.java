@@ -0,0 +1,49 @@
+package gov.ca.cwds.security.module;
+
+import gov.ca.cwds.testapp.domain.Case;
+import gov.ca.cwds.testapp.domain.CaseDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SecuredObjectSelectorTest {
+
+  @Test
+  public void testSelectFromScalar() {
+    CaseDTO caseDTO = caseDTO(1L);
+    caseDTO.setCases(Arrays.asList(new Case(2L, ""), new Case(3L, "")));
+    Assert.assertEquals(Collections.singletonList(5L),
+        new SecuredObjectSelector("id").selectFromScalar(5L));
+    Assert.assertEquals(Collections.singletonList(1L),
+        new SecuredObjectSelector("caseDTO.caseObject.id").selectFromScalar(caseDTO));
+    Assert.assertEquals(Arrays.asList(2L, 3L),
+        new SecuredObjectSelector("caseDTO.cases.id").selectFromScalar(caseDTO));
+  }
+
+  @Test
+  public void testSelectFromCollection() {
+    List<CaseDTO> caseDTOs = Arrays.asList(caseDTO(1L), caseDTO(2L), caseDTO(1L));
+    SecuredObjectSelector selector = new SecuredObjectSelector("caseDTO.caseObject.id");
+    Assert.assertEquals(new HashSet<>(Arrays.asList(1L, 2L)),
+        selector.selectFromCollection(caseDTOs));
+  }
+
+  @Test
+  public void testFilterCollection() {
+    List<CaseDTO> caseDTOs = new ArrayList<>(Arrays.asList(caseDTO(1L), caseDTO(2L)));
+    SecuredObjectSelector selector = new SecuredObjectSelector("caseDTO.caseObject.id");
+    selector.filterCollection(caseDTOs, Collections.singleton(2L));
+    Assert.assertEquals(1, caseDTOs.size());
+    Assert.assertEquals(Long.valueOf(2L), caseDTOs.get(0).getCaseObject().getId());
+  }
+
+  private static CaseDTO caseDTO(Long id) {
+    CaseDTO caseDTO = new CaseDTO();
+    caseDTO.setCaseObject(new Case(id, ""));
+    return caseDTO;
+  }
+}
@@ -0,0 +1,56 @@
+package gov.ca.cwds.security.permission;
+
+import gov.ca.cwds.security.AbstractApiSecurityTest;
+import gov.ca.cwds.security.authorizer.CaseAuthorizer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AbacPermissionRegistryTest extends AbstractApiSecurityTest {
+
+  @Test
+  public void testAuthorizerIsLookedUpOncePerHandler() {
+    AbacPermissionRegistry.Entry entry = AbacPermissionRegistry.lookup("case:read:caseObject");
+    Assert.assertEquals("caseObject", entry.getSecuredObject());
+    Assert.assertTrue(entry.getAuthorizer() instanceof CaseAuthorizer);
+    int size = AbacPermissionRegistry.size();
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals("case" + i,
+          AbacPermissionRegistry.lookup("case:read:case" + i).getSecuredObject());
+    }
+    Assert.assertEquals(size, AbacPermissionRegistry.size());
+  }
+
+  @Test
+  public void testInjectorChange() throws Exception {
+    AbacPermissionRegistry.lookup("case:read:caseObject");
+    Assert.assertTrue(AbacPermissionRegistry.size() > 0);
+    initInjector();
+    Assert.assertEquals(0, AbacPermissionRegistry.size());
+    Assert.assertTrue(AbacPermissionRegistry.lookup("case:read:caseObject").getAuthorizer()
+        instanceof CaseAuthorizer);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedPermission() {
+    AbacPermissionRegistry.lookup("case:read");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownAuthorizer() {
+    AbacPermissionRegistry.lookup("case:unknown:caseObject");
+  }
+
+  @Test
+  public void testUnknownAuthorizerIsCachedPerHandler() {
+    int size = AbacPermissionRegistry.size();
+    for (int i = 0; i < 100; i++) {
+      try {
+        AbacPermissionRegistry.lookup("case:unknown:case" + i);
+        Assert.fail();
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+    Assert.assertTrue(AbacPermissionRegistry.size() <= size + 1);
+  }
+}
@@ -0,0 +1,151 @@
+package gov.ca.cwds.security.realm;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gov.ca.cwds.security.PerryShiroToken;
+import gov.ca.cwds.security.jwt.JwtConfiguration;
+import gov.ca.cwds.security.jwt.JwtService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.shiro.authc.AuthenticationException;
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JwksRealmTest {
+
+  private HttpServer server;
+  private JwtService perry;
+  private JwksRealm jwksRealm;
+  private final Set<String> revokedTokens = ConcurrentHashMap.newKeySet();
+
+  @Before
+  public void before() throws Exception {
+    String keyStorePath = Paths.get(getClass().getResource("/security/enc.jceks").toURI())
+        .toAbsolutePath().toString();
+    perry = new JwtService(perryConfiguration(keyStorePath));
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/authn/jwks", exchange -> respond(exchange, 200, perry.getJwkSet()));
+    server.createContext("/authn/validate", exchange -> {
+      String token = exchange.getRequestURI().getQuery().substring("token=".length());
+      respond(exchange, revokedTokens.contains(token) ? 401 : 200, "{}");
+    });
+    server.start();
+    String perryUrl = "http://localhost:" + server.getAddress().getPort();
+
+    jwksRealm = new JwksRealm();
+    jwksRealm.setJwksUri(perryUrl + "/authn/jwks");
+    jwksRealm.setValidationUri(perryUrl + "/authn/validate");
+    jwksRealm.setRevocationCheckInterval(60000);
+    jwksRealm.setKeyStorePath(keyStorePath);
+    jwksRealm.setKeyStorePassword("test");
+    jwksRealm.setTokenIssuer("tokenIssuer");
+    jwksRealm.setUseEncryption(true);
+    jwksRealm.setEncKeyAlias("enc128");
+    jwksRealm.setEncKeyPassword("test");
+    jwksRealm.setEncryptionMethod("A128GCM");
+    jwksRealm.onInit();
+  }
+
+  @After
+  public void after() {
+    jwksRealm.destroy();
+    server.stop(0);
+  }
+
+  @Test
+  public void testDoGetAuthenticationInfo() throws Exception {
+    String token = generateToken();
+    AuthenticationInfo authenticationInfo =
+        jwksRealm.doGetAuthenticationInfo(new PerryShiroToken(token));
+    Assert.assertEquals("testuser", authenticationInfo.getPrincipals().asList().get(0));
+    Assert.assertEquals(token, authenticationInfo.getPrincipals().asList().get(2));
+  }
+
+  @Test
+  public void testRevokedToken() throws Exception {
+    String token = generateToken();
+    String otherToken = generateToken();
+    jwksRealm.doGetAuthenticationInfo(new PerryShiroToken(token));
+    jwksRealm.doGetAuthenticationInfo(new PerryShiroToken(otherToken));
+    revokedTokens.add(token);
+    jwksRealm.revocationChecker.check();
+
+    jwksRealm.doGetAuthenticationInfo(new PerryShiroToken(otherToken));
+    try {
+      jwksRealm.doGetAuthenticationInfo(new PerryShiroToken(token));
+      Assert.fail();
+    } catch (AuthenticationException e) {
+      Assert.assertEquals("Token is revoked", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testRevokedCachedToken() throws Exception {
+    jwksRealm.destroy();
+    jwksRealm.setTokenCacheEnabled(true);
+    jwksRealm.onInit();
+    String token = generateToken();
+    jwksRealm.doGetAuthenticationInfo(new PerryShiroToken(token));
+    revokedTokens.add(token);
+    jwksRealm.revocationChecker.check();
+
+    try {
+      jwksRealm.doGetAuthenticationInfo(new PerryShiroToken(token));
+      Assert.fail();
+    } catch (AuthenticationException e) {
+      Assert.assertEquals("Token is revoked", e.getMessage());
+    }
+    Assert.assertEquals(1L, jwksRealm.getTokenCacheMetrics().get("hits"));
+  }
+
+  @Test
+  public void testPerryIsDown() throws Exception {
+    String token = generateToken();
+    jwksRealm.doGetAuthenticationInfo(new PerryShiroToken(token));
+    server.stop(0);
+    jwksRealm.revocationChecker.check();
+    jwksRealm.doGetAuthenticationInfo(new PerryShiroToken(token));
+  }
+
+  private String generateToken() throws Exception {
+    String identity = new String(
+        Files.readAllBytes(Paths.get(getClass().getResource("/security/token.json").toURI())),
+        UTF_8);
+    return perry.generate("id", "subject", identity);
+  }
+
+  private static JwtConfiguration perryConfiguration(String keyStorePath) {
+    JwtConfiguration configuration = new JwtConfiguration();
+    configuration.setTimeout(5);
+    configuration.setIssuer("tokenIssuer");
+    configuration.setEncryptionEnabled(true);
+    configuration.setEncryptionMethod("A128GCM");
+    configuration.setKeyStore(new JwtConfiguration.KeyStoreConfiguration());
+    configuration.getKeyStore().setPath(keyStorePath);
+    configuration.getKeyStore().setPassword("test");
+    configuration.getKeyStore().setAlias("test");
+    configuration.getKeyStore().setKeyPassword("test");
+    configuration.getKeyStore().setEncAlias("enc128");
+    configuration.getKeyStore().setEncKeyPassword("test");
+    return configuration;
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(UTF_8);
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
@@ -3,12 +3,17 @@ package gov.ca.cwds.security.realm;
 import gov.ca.cwds.security.AbstractApiSecurityTest;
 import gov.ca.cwds.security.PerryShiroToken;
 import gov.ca.cwds.security.jwt.JwtConfiguration;
+import gov.ca.cwds.security.jwt.JwtException;
+import gov.ca.cwds.security.jwt.JwtValidationResult;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authz.AuthorizationInfo;
@@ -24,7 +29,12 @@ public class JwtRealmTest extends AbstractApiSecurityTest {
 
   @BeforeClass
   public static void init() throws Exception {
-    jwtRealm = new JwtRealmMock();
+    jwtRealm = jwtRealm(false);
+  }
+
+  private static JwtRealm jwtRealm(boolean tokenCacheEnabled) throws Exception {
+    JwtRealm jwtRealm = new JwtRealmMock();
+    jwtRealm.setTokenCacheEnabled(tokenCacheEnabled);
     jwtRealm.setKeyStoreAlias("test");
     jwtRealm.setKeyStoreKeyPassword("test");
     jwtRealm.setKeyStorePassword("test");
@@ -35,6 +45,7 @@ public class JwtRealmTest extends AbstractApiSecurityTest {
     jwtRealm.setEncryptionMethod("A128GCM");
     jwtRealm.setKeyStorePath(Paths.get(JwtRealmTest.class.getResource("/security/enc.jceks").toURI()).toAbsolutePath().toString());
     jwtRealm.onInit();
+    return jwtRealm;
   }
 
   @Test
@@ -61,11 +72,102 @@ public class JwtRealmTest extends AbstractApiSecurityTest {
     Assert.assertEquals(authenticationInfo.getPrincipals().asList().get(2), jwtToken);
   }
 
+  @Test
+  public void testValidateAllMixedTokens() throws Exception {
+    String invalidToken = invalidToken();
+    List<JwtValidationResult> results = jwtRealm.jwtService
+        .validateAll(Arrays.asList(generateToken("user1"), invalidToken, generateToken("user3")));
+    Assert.assertEquals(3, results.size());
+    Assert.assertTrue(results.get(0).isValid());
+    Assert.assertNotNull(results.get(0).getIdentity());
+    Assert.assertNotNull(results.get(0).getExpirationTime());
+    Assert.assertFalse(results.get(1).isValid());
+    Assert.assertEquals(invalidToken, results.get(1).getToken());
+    Assert.assertNull(results.get(1).getIdentity());
+    Assert.assertNotNull(results.get(1).getError());
+    Assert.assertTrue(results.get(2).isValid());
+  }
+
+  @Test
+  public void testGetAuthenticationInfos() throws Exception {
+    List<String> tokens = Arrays.asList(generateToken("user1"), generateToken("user2"),
+        generateToken("user3"));
+    List<AuthenticationInfo> authenticationInfos = jwtRealm.getAuthenticationInfos(tokens);
+    Assert.assertEquals(3, authenticationInfos.size());
+    for (int i = 0; i < tokens.size(); i++) {
+      List principals = authenticationInfos.get(i).getPrincipals().asList();
+      Assert.assertEquals("testuser", principals.get(0));
+      Assert.assertEquals(tokens.get(i), principals.get(2));
+    }
+  }
+
+  @Test(expected = AuthenticationException.class)
+  public void testGetAuthenticationInfosInvalidToken() throws Exception {
+    jwtRealm.getAuthenticationInfos(Arrays.asList(generateToken("user1"), invalidToken()));
+  }
+
+  @Test
+  public void testGetAuthenticationInfosTokenCache() throws Exception {
+    JwtRealm cachingRealm = jwtRealm(true);
+    String cachedToken = generateToken("user1");
+    AuthenticationInfo authenticationInfo =
+        cachingRealm.doGetAuthenticationInfo(new PerryShiroToken(cachedToken));
+    String token = generateToken("user2");
+    List<AuthenticationInfo> authenticationInfos =
+        cachingRealm.getAuthenticationInfos(Arrays.asList(cachedToken, token));
+    Assert.assertSame(authenticationInfo, authenticationInfos.get(0));
+    Assert.assertSame(authenticationInfos.get(1),
+        cachingRealm.doGetAuthenticationInfo(new PerryShiroToken(token)));
+    Assert.assertEquals(2L, cachingRealm.getTokenCacheMetrics().get("hits"));
+  }
+
+  @Test(expected = JwtException.class)
+  public void testValidateAllAfterDestroy() throws Exception {
+    JwtRealm destroyedRealm = jwtRealm(false);
+    destroyedRealm.destroy();
+    destroyedRealm.jwtService.validateAll(Arrays.asList(generateToken("user1"),
+        generateToken("user2")));
+  }
+
+  @Test
+  public void testTokenCache() throws Exception {
+    JwtRealm cachingRealm = jwtRealm(true);
+    String jwtToken = generateToken("testuser");
+    AuthenticationInfo authenticationInfo =
+        cachingRealm.doGetAuthenticationInfo(new PerryShiroToken(jwtToken));
+    Assert.assertSame(authenticationInfo,
+        cachingRealm.doGetAuthenticationInfo(new PerryShiroToken(jwtToken)));
+    Assert.assertNotSame(authenticationInfo,
+        cachingRealm.doGetAuthenticationInfo(new PerryShiroToken(generateToken("testuser"))));
+
+    Map<String, Number> metrics = cachingRealm.getTokenCacheMetrics();
+    Assert.assertEquals(1L, metrics.get("hits"));
+    Assert.assertEquals(2L, metrics.get("misses"));
+    Assert.assertEquals(2L, metrics.get("size"));
+    Assert.assertTrue(jwtRealm.getTokenCacheMetrics().isEmpty());
+  }
+
+  @Test
+  public void testExpirationTime() throws Exception {
+    long expirationTime =
+        jwtRealm.validateExpiring(generateToken("testuser")).getExpirationTime();
+    long timeout = TimeUnit.MINUTES.toMillis(5);
+    Assert.assertTrue(expirationTime <= System.currentTimeMillis() + timeout);
+    Assert.assertTrue(expirationTime > System.currentTimeMillis() + timeout - 60000);
+  }
+
   private String generateToken(String subject) throws Exception {
     String identity = new String(Files.readAllBytes(Paths.get(getClass().getResource("/security/token.json").toURI())));
     return jwtRealm.jwtService.generate("id", subject, identity);
   }
 
+  private String invalidToken() throws Exception {
+    StringBuilder invalidToken = new StringBuilder(generateToken("user2"));
+    int index = invalidToken.lastIndexOf(".") - 5;
+    invalidToken.setCharAt(index, invalidToken.charAt(index) == '1' ? '2' : '1');
+    return invalidToken.toString();
+  }
+
   private PerryAccount perryAccount() {
     PerryAccount perryAccount = new PerryAccount();
     perryAccount.setUser("testuser");
@@ -0,0 +1,141 @@
+package gov.ca.cwds.security.realm;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gov.ca.cwds.security.HttpClientPool;
+import gov.ca.cwds.security.PerryShiroToken;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.shiro.authc.AuthenticationException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PerryRealmTest {
+
+  private static final int CONCURRENT_VALIDATIONS = 8;
+
+  private HttpServer server;
+  private PerryRealm perryRealm;
+  private ExecutorService executor;
+  private final AtomicInteger perryCalls = new AtomicInteger();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private volatile int status = 200;
+
+  @Before
+  public void before() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/authn/validate", exchange -> {
+      perryCalls.incrementAndGet();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      respond(exchange, status, "{\"user\":\"testuser\"}");
+    });
+    server.start();
+
+    perryRealm = new PerryRealm();
+    perryRealm.setValidationUri(
+        "http://localhost:" + server.getAddress().getPort() + "/authn/validate");
+    perryRealm.onInit();
+    executor = Executors.newFixedThreadPool(CONCURRENT_VALIDATIONS);
+  }
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+    server.stop(0);
+  }
+
+  @Test
+  public void testConcurrentValidationsAreCoalesced() throws Exception {
+    List<Future<String>> identities = validateConcurrently("token");
+    for (Future<String> identity : identities) {
+      Assert.assertEquals("{\"user\":\"testuser\"}", identity.get(10, TimeUnit.SECONDS));
+    }
+    Assert.assertEquals(1, perryCalls.get());
+    Assert.assertEquals(1, perryRealm.getValidationCount());
+    Assert.assertEquals(CONCURRENT_VALIDATIONS - 1, perryRealm.getCoalescedValidationCount());
+  }
+
+  @Test
+  public void testCoalescedValidationFailure() throws Exception {
+    status = 401;
+    List<Future<String>> identities = validateConcurrently("token");
+    for (Future<String> identity : identities) {
+      try {
+        identity.get(10, TimeUnit.SECONDS);
+        Assert.fail();
+      } catch (ExecutionException e) {
+        Assert.assertTrue(e.getCause() instanceof AuthenticationException);
+      }
+    }
+    Assert.assertEquals(1, perryCalls.get());
+  }
+
+  @Test
+  public void testSequentialValidationsAreNotCoalesced() throws Exception {
+    release.countDown();
+    perryRealm.validate("token");
+    perryRealm.validate("token");
+    Assert.assertEquals(2, perryCalls.get());
+    Assert.assertEquals(0, perryRealm.getCoalescedValidationCount());
+    Assert.assertEquals(0, HttpClientPool.getShared().getMetrics().get("leasedConnections"));
+    Assert.assertTrue(
+        HttpClientPool.getShared().getMetrics().get("availableConnections").intValue() > 0);
+  }
+
+  @Test
+  public void testTokenCacheMaxAge() throws Exception {
+    release.countDown();
+    PerryRealm cachingRealm = new PerryRealm();
+    cachingRealm.setValidationUri(perryRealm.getValidationUri());
+    cachingRealm.setTokenCacheEnabled(true);
+    cachingRealm.onInit();
+    cachingRealm.doGetAuthenticationInfo(new PerryShiroToken("token"));
+    cachingRealm.doGetAuthenticationInfo(new PerryShiroToken("token"));
+    Assert.assertEquals(1, perryCalls.get());
+
+    cachingRealm.setTokenCacheMaxAge(0);
+    cachingRealm.doGetAuthenticationInfo(new PerryShiroToken("otherToken"));
+    cachingRealm.doGetAuthenticationInfo(new PerryShiroToken("otherToken"));
+    Assert.assertEquals(3, perryCalls.get());
+  }
+
+  private List<Future<String>> validateConcurrently(String token) throws Exception {
+    List<Future<String>> identities = new ArrayList<>();
+    for (int i = 0; i < CONCURRENT_VALIDATIONS; i++) {
+      identities.add(executor.submit(() -> perryRealm.validate(token)));
+    }
+    long deadline = System.currentTimeMillis() + 10000;
+    while (perryRealm.getCoalescedValidationCount() < CONCURRENT_VALIDATIONS - 1
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    release.countDown();
+    return identities;
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(UTF_8);
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
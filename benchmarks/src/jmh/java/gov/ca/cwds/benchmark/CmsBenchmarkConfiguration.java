@@ -0,0 +1,50 @@
+package gov.ca.cwds.benchmark;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.config.CMSConfiguration;
+import gov.ca.cwds.service.CwsUserInfoCache;
+import gov.ca.cwds.service.CwsUserInfoService;
+import gov.ca.cwds.service.StaffAssignmentCache;
+import java.util.HashMap;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/**
+ * CWS/CMS slice of the application: user lookups with their caches disabled, on an in-memory H2
+ * database whose schema is generated from the entities.
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableConfigurationProperties(PerryProperties.class)
+@Import({CMSConfiguration.class, CwsUserInfoService.class, CwsUserInfoCache.class,
+    StaffAssignmentCache.class})
+public class CmsBenchmarkConfiguration {
+
+  /**
+   * Read-write transaction manager CWS/CMS lookups used to run with.
+   */
+  @Bean
+  public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+    return new JpaTransactionManager(entityManagerFactory);
+  }
+
+  static Map<String, Object> properties(String cmsReadIsolation) {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put("perry.cwsUserCache.enabled", false);
+    properties.put("perry.staffAssignmentCache.enabled", false);
+    properties.put("perry.cmsReadIsolation", cmsReadIsolation);
+    properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+    properties.put("spring.datasource.url", "jdbc:h2:mem:cms_benchmark;DB_CLOSE_DELAY=-1");
+    properties.put("spring.jpa.database", "h2");
+    properties.put("spring.jpa.show_sql", false);
+    properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+    properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+    return properties;
+  }
+}
@@ -0,0 +1,182 @@
+package gov.ca.cwds.benchmark;
+
+import static gov.ca.cwds.config.CMSConfiguration.CMS_READ_ONLY_TRANSACTION_MANAGER;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import gov.ca.cwds.data.persistence.auth.CwsOffice;
+import gov.ca.cwds.data.persistence.auth.StaffPerson;
+import gov.ca.cwds.data.persistence.auth.UserId;
+import gov.ca.cwds.service.CwsUserInfoService;
+import gov.ca.cwds.service.dto.CwsUserInfo;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * CWS/CMS user lookups on H2, run with the gc profiler to compare heap churn per lookup
+ * ({@code gc.alloc.rate.norm}).
+ *
+ * <p>{@link #managedEntities()} loads a batch of users the way the IDM path did before: managed
+ * {@code UserId -> StaffPerson -> CwsOffice} graphs in a read-write transaction, dirty checked at
+ * commit. {@link #readOnlyEntities()} runs the same query with read-only entities in the
+ * read-only transaction, {@link #projections()} is the current
+ * {@link CwsUserInfoService#findUsers} and {@link #authorization()} is the login lookup of a
+ * single user.</p>
+ */
+@State(Scope.Benchmark)
+public class CmsLookupBenchmark {
+
+  private static final int USERS = 1000;
+  private static final int OFFICES = 20;
+  private static final int BATCH_SIZE = 50;
+
+  private static final String ENTITY_QUERY = "SELECT U FROM UserId U "
+      + "LEFT OUTER JOIN FETCH U.staffPerson sp "
+      + "LEFT OUTER JOIN FETCH sp.office "
+      + "WHERE U.logonId in :logonIds "
+      + "AND U.endDate is null";
+
+  @Param({"DEFAULT", "READ_UNCOMMITTED"})
+  public String cmsReadIsolation;
+
+  private ConfigurableApplicationContext context;
+  private EntityManagerFactory entityManagerFactory;
+  private TransactionTemplate readWriteTransaction;
+  private TransactionTemplate readOnlyTransaction;
+  private CwsUserInfoService cwsUserInfoService;
+
+  private final List<List<String>> batches = new ArrayList<>();
+  private final AtomicLong counter = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(CmsBenchmarkConfiguration.class)
+        .web(false)
+        .logStartupInfo(false)
+        .properties(CmsBenchmarkConfiguration.properties(cmsReadIsolation))
+        .run();
+    entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    readWriteTransaction = new TransactionTemplate(
+        context.getBean("transactionManager", PlatformTransactionManager.class));
+    readOnlyTransaction = new TransactionTemplate(
+        context.getBean(CMS_READ_ONLY_TRANSACTION_MANAGER, PlatformTransactionManager.class));
+    cwsUserInfoService = context.getBean(CwsUserInfoService.class);
+
+    populate(new JdbcTemplate(context.getBean(DataSource.class)));
+    for (int i = 0; i < USERS; i += BATCH_SIZE) {
+      List<String> batch = new ArrayList<>(BATCH_SIZE);
+      for (int j = i; j < i + BATCH_SIZE; j++) {
+        batch.add(logonId(j));
+      }
+      batches.add(batch);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<CwsUserInfo> managedEntities() {
+    List<String> batch = nextBatch();
+    return readWriteTransaction.execute(status -> loadUsers(batch, false));
+  }
+
+  @Benchmark
+  public List<CwsUserInfo> readOnlyEntities() {
+    List<String> batch = nextBatch();
+    return readOnlyTransaction.execute(status -> loadUsers(batch, true));
+  }
+
+  @Benchmark
+  public List<CwsUserInfo> projections() {
+    return cwsUserInfoService.findUsers(nextBatch());
+  }
+
+  @Benchmark
+  public CwsUserInfo authorization() {
+    return cwsUserInfoService
+        .composeForUserAuthorization(logonId((int) (counter.getAndIncrement() % USERS)));
+  }
+
+  private List<CwsUserInfo> loadUsers(List<String> batch, boolean readOnly) {
+    EntityManager entityManager =
+        EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+    // collected into a set as the repository method did, hashing initializes the privileges
+    Set<UserId> userIds = new HashSet<>(entityManager.createQuery(ENTITY_QUERY, UserId.class)
+        .setParameter("logonIds", batch)
+        .setHint(HINT_READONLY, readOnly)
+        .getResultList());
+    return userIds.stream()
+        .map(CmsLookupBenchmark::toCwsUserInfo)
+        .collect(Collectors.toList());
+  }
+
+  private List<String> nextBatch() {
+    return batches.get((int) (counter.getAndIncrement() % batches.size()));
+  }
+
+  private static CwsUserInfo toCwsUserInfo(UserId userId) {
+    StaffPerson staffPerson = userId.getStaffPerson();
+    CwsOffice office = staffPerson == null ? null : staffPerson.getOffice();
+    return CwsUserInfo.CwsUserInfoBuilder.aCwsUserInfo()
+        .withRacfId(userId.getLogonId())
+        .withCwsOffice(office)
+        .withStaffPerson(staffPerson)
+        .build();
+  }
+
+  private static String logonId(int i) {
+    return "USER" + i;
+  }
+
+  private static void populate(JdbcTemplate jdbcTemplate) {
+    for (int i = 0; i < OFFICES; i++) {
+      jdbcTemplate.update("INSERT INTO CWS_OFFT (IDENTIFIER, GVR_ENTC, PRM_TEL_NO, PRM_EXT_NO,"
+              + " CWS_OFF_NM, CNTY_SPFCD, INACTV_IND) VALUES (?, ?, ?, ?, ?, ?, 'N')",
+          "OFF" + i, 1100 + i, 9165550000L + i, 10 + i, "Office " + i, "34");
+    }
+    jdbcTemplate.update("INSERT INTO ASG_UNIT (IDENTIFIER, FKCWS_OFFT, ASGMUNT_NM, CNTY_SPFCD,"
+        + " TEL_EXT_NO) VALUES ('AU1', 'OFF0', 'Unit', '34', 0)");
+    for (int i = 0; i < USERS; i++) {
+      String staffPersonId = "S" + i;
+      jdbcTemplate.update("INSERT INTO STFPERST (IDENTIFIER, FIRST_NM, LAST_NM, START_DT,"
+              + " PHONE_NO, TEL_EXT_NO, CNTY_SPFCD, FKCWS_OFFT)"
+              + " VALUES (?, ?, ?, CURRENT_DATE, ?, ?, '34', ?)",
+          staffPersonId, "First" + i, "Last" + i, 9165551000L + i, i, "OFF" + i % OFFICES);
+      jdbcTemplate.update("INSERT INTO USERID_T (IDENTIFIER, LOGON_ID, FKSTFPERST)"
+          + " VALUES (?, ?, ?)", "U" + i, logonId(i), staffPersonId);
+      jdbcTemplate.update("INSERT INTO STF_PVLT (IDENTIFIER, FKUSERID_T, LVL_PRVC, ATH_PRVC,"
+          + " CNTY_SPFCD) VALUES (?, ?, 1468, 'P', '34')", "P" + i, "U" + i);
+      jdbcTemplate.update("INSERT INTO STFUATHT (THIRD_ID, FKSTFPERST, FKASG_UNIT, UNTAUTH_CD,"
+          + " CNTY_SPFCD) VALUES (?, ?, 'AU1', 'S', '34')", "A" + i, staffPersonId);
+    }
+    // tables of the native assignment queries are not mapped to entities
+    jdbcTemplate.execute("CREATE TABLE ASGNM_T (ESTBLSH_ID VARCHAR(10), ESTBLSH_CD CHAR(1),"
+        + " FKCASE_LDT VARCHAR(10), END_DT DATE)");
+    jdbcTemplate.execute("CREATE TABLE CASE_LDT (IDENTIFIER VARCHAR(10), END_DT DATE)");
+    jdbcTemplate.execute("CREATE TABLE STFCSLDT (FKCASE_LDT VARCHAR(10), FKSTFPERST VARCHAR(10))");
+    jdbcTemplate.execute("CREATE TABLE REFERL_T (IDENTIFIER VARCHAR(10), REFCLSR_DT DATE)");
+    jdbcTemplate.execute("CREATE TABLE CASE_T (IDENTIFIER VARCHAR(10), END_DT DATE)");
+  }
+}
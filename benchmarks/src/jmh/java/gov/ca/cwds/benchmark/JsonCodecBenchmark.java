@@ -0,0 +1,31 @@
+package gov.ca.cwds.benchmark;
+
+import gov.ca.cwds.UniversalUserToken;
+import gov.ca.cwds.util.JsonCodec;
+import java.io.IOException;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reading the identity JSON stored with a perry token: shared reader against a mapper built per
+ * call.
+ */
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+  private static final String JSON_TOKEN = "{\"user\":\"RACFID\",\"roles\":[\"CWS-worker\"],"
+      + "\"county_name\":\"Ventura\",\"admin_office_ids\":[\"1\",\"2\"],"
+      + "\"userName\":\"user\",\"first_name\":\"First\",\"last_name\":\"Last\"}";
+
+  @Benchmark
+  public UniversalUserToken sharedReader() throws IOException {
+    return JsonCodec.readUserToken(JSON_TOKEN);
+  }
+
+  @Benchmark
+  public UniversalUserToken mapperPerCall() throws IOException {
+    return new ObjectMapper().readValue(JSON_TOKEN, UniversalUserToken.class);
+  }
+}
@@ -0,0 +1,74 @@
+package gov.ca.cwds.benchmark;
+
+import gov.ca.cwds.security.jwt.JwtConfiguration;
+import gov.ca.cwds.security.jwt.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Token generation and validation cost of every supported signing algorithm, with encryption on
+ * and off. Uses the dev keystore: {@code test} RSA key pair, {@code es256} P-256 key pair,
+ * {@code hs256} HMAC key and {@code enc} AES key.
+ *
+ * <p>Keystore path is taken from {@code perry.benchmark.keyStore} system property.</p>
+ */
+@State(Scope.Benchmark)
+public class JwtAlgorithmBenchmark {
+
+  private static final String PASSWORD = "test";
+  private static final String IDENTITY = "{\"user\":\"RACFID\",\"roles\":[\"CWS-worker\"]}";
+
+  @Param({"RS256", "PS256", "ES256", "HS256"})
+  public String signingAlgorithm;
+
+  @Param({"true", "false"})
+  public boolean encryptionEnabled;
+
+  private JwtService jwtService;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    JwtConfiguration configuration = new JwtConfiguration();
+    configuration.setTimeout(30);
+    configuration.setIssuer("perry");
+    configuration.setSigningAlgorithm(signingAlgorithm);
+    configuration.setEncryptionEnabled(encryptionEnabled);
+    configuration.setEncryptionMethod("A256GCM");
+    configuration.setHeadless(true);
+    configuration.setKeyStore(new JwtConfiguration.KeyStoreConfiguration());
+    configuration.getKeyStore()
+        .setPath(System.getProperty("perry.benchmark.keyStore", "config/enc.jceks"));
+    configuration.getKeyStore().setPassword(PASSWORD);
+    configuration.getKeyStore().setAlias(alias(signingAlgorithm));
+    configuration.getKeyStore().setKeyPassword(PASSWORD);
+    configuration.getKeyStore().setEncAlias("enc");
+    configuration.getKeyStore().setEncKeyPassword(PASSWORD);
+    jwtService = new JwtService(configuration);
+    token = jwtService.generate("id", "subject", IDENTITY);
+  }
+
+  @Benchmark
+  public String generate() {
+    return jwtService.generate("id", "subject", IDENTITY);
+  }
+
+  @Benchmark
+  public String validate() {
+    return jwtService.validate(token);
+  }
+
+  private static String alias(String signingAlgorithm) {
+    switch (signingAlgorithm) {
+      case "ES256":
+        return "es256";
+      case "HS256":
+        return "hs256";
+      default:
+        return "test";
+    }
+  }
+}
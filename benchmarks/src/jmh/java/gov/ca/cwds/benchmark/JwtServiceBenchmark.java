@@ -0,0 +1,125 @@
+package gov.ca.cwds.benchmark;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import gov.ca.cwds.security.jwt.JwtConfiguration;
+import gov.ca.cwds.security.jwt.JwtService;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Headless encrypted tokens as issued in production: {@link JwtService} with shared crypto
+ * primitives and pre-serialized headers against signers, encrypters and headers built per call.
+ * Keys are loaded once in both cases.
+ *
+ * <p>Keystore path is taken from {@code perry.benchmark.keyStore} system property.</p>
+ */
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+  private static final String PASSWORD = "test";
+  private static final String IDENTITY = "{\"user\":\"RACFID\",\"roles\":[\"CWS-worker\"]}";
+
+  private JwtConfiguration configuration;
+  private JwtService jwtService;
+  private String token;
+
+  private PrivateKey signingKey;
+  private RSAPublicKey validatingKey;
+  private SecretKey encryptingKey;
+
+  @Setup
+  public void setUp() throws Exception {
+    configuration = new JwtConfiguration();
+    configuration.setTimeout(30);
+    configuration.setIssuer("perry");
+    configuration.setEncryptionEnabled(true);
+    configuration.setEncryptionMethod("A256GCM");
+    configuration.setHeadless(true);
+    configuration.setKeyStore(new JwtConfiguration.KeyStoreConfiguration());
+    configuration.getKeyStore()
+        .setPath(System.getProperty("perry.benchmark.keyStore", "config/enc.jceks"));
+    configuration.getKeyStore().setPassword(PASSWORD);
+    configuration.getKeyStore().setAlias("test");
+    configuration.getKeyStore().setKeyPassword(PASSWORD);
+    configuration.getKeyStore().setEncAlias("enc");
+    configuration.getKeyStore().setEncKeyPassword(PASSWORD);
+    jwtService = new JwtService(configuration);
+    token = jwtService.generate("id", "subject", IDENTITY);
+
+    KeyStore keyStore = KeyStore.getInstance("JCEKS");
+    try (InputStream in = new FileInputStream(configuration.getKeyStore().getPath())) {
+      keyStore.load(in, PASSWORD.toCharArray());
+    }
+    signingKey = (PrivateKey) keyStore.getKey("test", PASSWORD.toCharArray());
+    validatingKey = (RSAPublicKey) keyStore.getCertificate("test").getPublicKey();
+    encryptingKey = (SecretKey) keyStore.getKey("enc", PASSWORD.toCharArray());
+  }
+
+  @Benchmark
+  public String generate() {
+    return jwtService.generate("id", "subject", IDENTITY);
+  }
+
+  @Benchmark
+  public String validate() {
+    return jwtService.validate(token);
+  }
+
+  @Benchmark
+  public String generatePerCall() throws Exception {
+    Date now = new Date();
+    JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+        .subject("subject")
+        .issueTime(now)
+        .issuer(configuration.getIssuer())
+        .expirationTime(new Date(now.getTime() + configuration.getTimeout() * 60 * 1000))
+        .jwtID("id")
+        .claim(JwtService.IDENTITY_CLAIM, IDENTITY)
+        .build();
+    SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+    signedJWT.sign(new RSASSASigner(signingKey));
+    JWEObject jweObject = new JWEObject(jweHeader(), new Payload(signedJWT));
+    jweObject.encrypt(new DirectEncrypter(encryptingKey.getEncoded()));
+    String serialized = jweObject.serialize();
+    return serialized.substring(serialized.indexOf('.'));
+  }
+
+  @Benchmark
+  public String validatePerCall() throws Exception {
+    JWEObject jweObject = JWEObject.parse(jweHeader().toBase64URL().toString() + token);
+    jweObject.decrypt(new DirectDecrypter(encryptingKey.getEncoded()));
+    SignedJWT signedJWT = jweObject.getPayload().toSignedJWT();
+    if (!signedJWT.verify(new RSASSAVerifier(validatingKey))) {
+      throw new IllegalStateException("Token validation failed");
+    }
+    return signedJWT.getJWTClaimsSet().getStringClaim(JwtService.IDENTITY_CLAIM);
+  }
+
+  private JWEHeader jweHeader() {
+    return new JWEHeader.Builder(JWEAlgorithm.DIR,
+        EncryptionMethod.parse(configuration.getEncryptionMethod()))
+        .contentType("JWT")
+        .build();
+  }
+}
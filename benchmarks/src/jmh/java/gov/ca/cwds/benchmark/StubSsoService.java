@@ -0,0 +1,49 @@
+package gov.ca.cwds.benchmark;
+
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import gov.ca.cwds.service.sso.SsoService;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import org.springframework.security.oauth2.client.DefaultOAuth2ClientContext;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+
+/**
+ * SSO service which never calls the identity provider, so benchmarks measure perry itself.
+ */
+public class StubSsoService implements SsoService {
+
+  static final String SSO_TOKEN = "eyJraWQiOiJzc28tdG9rZW4iLCJhbGciOiJSUzI1NiJ9.sso-token";
+
+  @Override
+  public Map getUserInfo(String ssoToken) {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public void validate(PerryTokenEntity perryTokenEntity) {
+    // identity provider is not called
+  }
+
+  @Override
+  public void invalidate(String ssoToken) {
+    // identity provider is not called
+  }
+
+  @Override
+  public String getSsoToken() {
+    return SSO_TOKEN;
+  }
+
+  @Override
+  public Serializable getSecurityContext() {
+    DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(SSO_TOKEN);
+    accessToken.setTokenType("bearer");
+    accessToken.setExpiration(new Date(System.currentTimeMillis() + 3600000));
+    accessToken.setScope(Collections.singleton("openid"));
+    DefaultOAuth2ClientContext clientContext = new DefaultOAuth2ClientContext();
+    clientContext.setAccessToken(accessToken);
+    return clientContext;
+  }
+}
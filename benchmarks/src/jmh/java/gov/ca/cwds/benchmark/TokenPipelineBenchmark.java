@@ -0,0 +1,116 @@
+package gov.ca.cwds.benchmark;
+
+import gov.ca.cwds.UniversalUserToken;
+import gov.ca.cwds.service.LoginServiceImpl;
+import gov.ca.cwds.service.TokenService;
+import gov.ca.cwds.service.token.PerryTokenCache;
+import gov.ca.cwds.service.token.TokenWriteBehindBuffer;
+import java.io.Serializable;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Login and validate token pipeline against the relational token store on H2 and a stubbed SSO
+ * service.
+ *
+ * <p>{@link #login()} issues an access code and redeems it, {@link #getPerryToken()} and
+ * {@link #validate()} work on a pool of previously issued tokens.</p>
+ */
+@State(Scope.Benchmark)
+public class TokenPipelineBenchmark {
+
+  private static final int TOKEN_POOL_SIZE = 1024;
+
+  private static final String USER_ID = "RACFID";
+  private static final String JSON_TOKEN = "{\"user\":\"RACFID\",\"roles\":[\"CWS-worker\"],"
+      + "\"staffId\":\"0X5\",\"county_code\":\"56\",\"county_cws_code\":\"1123\","
+      + "\"county_name\":\"Ventura\",\"privileges\":[\"Sealed\",\"Sensitive Persons\"]}";
+
+  @Param({"true", "false"})
+  public boolean tokenCacheEnabled;
+
+  @Param({"true", "false"})
+  public boolean tokenWriteBehindEnabled;
+
+  private ConfigurableApplicationContext context;
+  private TokenService tokenService;
+  private LoginServiceImpl loginService;
+  private StubSsoService ssoService;
+  private JdbcTemplate jdbcTemplate;
+
+  private final String[] tokens = new String[TOKEN_POOL_SIZE];
+  private final AtomicLong counter = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(TokenStoreBenchmarkConfiguration.class)
+        .web(false)
+        .logStartupInfo(false)
+        .properties(TokenStoreBenchmarkConfiguration
+            .properties(tokenCacheEnabled, tokenWriteBehindEnabled))
+        .run();
+    tokenService = context.getBean(TokenService.class);
+    jdbcTemplate = new JdbcTemplate(context.getBean("tokenDataSource", DataSource.class));
+
+    ssoService = new StubSsoService();
+    loginService = new LoginServiceImpl();
+    loginService.setTokenService(tokenService);
+    loginService.setSsoService(ssoService);
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+    context.getBean(TokenWriteBehindBuffer.class).flush();
+    context.getBean(PerryTokenCache.class).invalidateAll();
+    jdbcTemplate.update("DELETE FROM perry_access_code");
+    jdbcTemplate.update("DELETE FROM perry_token");
+    for (int i = 0; i < TOKEN_POOL_SIZE; i++) {
+      tokens[i] = tokenService.getPerryTokenByAccessCode(issueAccessCode());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public String issueAccessCode() {
+    UniversalUserToken userToken = new UniversalUserToken();
+    userToken.setUserId(USER_ID);
+    userToken.setToken(UUID.randomUUID().toString());
+    Serializable securityContext = ssoService.getSecurityContext();
+    return tokenService
+        .issueAccessCode(userToken, ssoService.getSsoToken(), JSON_TOKEN, securityContext);
+  }
+
+  @Benchmark
+  public String login() {
+    return tokenService.getPerryTokenByAccessCode(issueAccessCode());
+  }
+
+  @Benchmark
+  public Object getPerryToken() {
+    return tokenService.getPerryToken(nextToken());
+  }
+
+  @Benchmark
+  public UniversalUserToken validate() {
+    return loginService.validate(nextToken());
+  }
+
+  private String nextToken() {
+    return tokens[(int) (counter.getAndIncrement() % TOKEN_POOL_SIZE)];
+  }
+}
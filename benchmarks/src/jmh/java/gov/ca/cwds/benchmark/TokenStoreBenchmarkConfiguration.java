@@ -0,0 +1,49 @@
+package gov.ca.cwds.benchmark;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.config.TokenServiceConfiguration;
+import gov.ca.cwds.data.reissue.JpaTokenStore;
+import gov.ca.cwds.data.reissue.PerryTokenJdbcRepository;
+import gov.ca.cwds.service.TokenService;
+import gov.ca.cwds.service.token.PerryTokenCache;
+import gov.ca.cwds.service.token.PerryTokenCodec;
+import gov.ca.cwds.service.token.TokenWriteBehindBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/**
+ * Token store slice of the application: token service, cache, write-behind buffer and the
+ * relational token store on an in-memory H2 database.
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableConfigurationProperties(PerryProperties.class)
+@Import({TokenServiceConfiguration.class, JpaTokenStore.class, PerryTokenJdbcRepository.class,
+    TokenService.class, PerryTokenCache.class, TokenWriteBehindBuffer.class,
+    PerryTokenCodec.class})
+public class TokenStoreBenchmarkConfiguration {
+
+  static Map<String, Object> properties(boolean tokenCacheEnabled,
+      boolean tokenWriteBehindEnabled) {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put("perry.jwt.timeout", 10);
+    properties.put("perry.tokenRecordTimeout", 240);
+    properties.put("perry.idpValidateInterval", 2);
+    properties.put("perry.tokenCache.enabled", tokenCacheEnabled);
+    properties.put("perry.tokenWriteBehind.enabled", tokenWriteBehindEnabled);
+    properties.put("perry.tokenReaper.enabled", false);
+    properties.put("perry.tokenStore.datasource.driver-class-name", "org.h2.Driver");
+    properties.put("perry.tokenStore.datasource.url",
+        "jdbc:h2:mem:token_store_benchmark;DB_CLOSE_DELAY=-1");
+    properties.put("perry.tokenStore.jpa.database", "h2");
+    properties.put("perry.tokenStore.jpa.show_sql", false);
+    properties.put("perry.tokenStore.jpa.hibernate.ddl-auto", "create-drop");
+    properties.put("perry.tokenStore.jpa.properties.hibernate.dialect",
+        "org.hibernate.dialect.H2Dialect");
+    return properties;
+  }
+}
@@ -36,10 +36,14 @@ if [ "$IDM_MODE" = true ] ; then
     JAVA_OPTS="$JAVA_OPTS,idm"
 fi
 
-if [ "$REDIS_ENABLED" = true ] ; then
+if [ "$REDIS_ENABLED" = true ] || [ "$REDIS_TOKEN_STORE" = true ] ; then
     JAVA_OPTS="$JAVA_OPTS,redis"
 fi
 
+if [ "$REDIS_TOKEN_STORE" = true ] ; then
+    JAVA_OPTS="$JAVA_OPTS,redis-token-store"
+fi
+
 if [ "$IGNORE_OAUTH2_STATE" = true ] ; then
     JAVA_OPTS="$JAVA_OPTS,nostate"
 fi
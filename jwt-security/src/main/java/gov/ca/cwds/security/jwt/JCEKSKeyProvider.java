@@ -1,55 +1,126 @@
 package gov.ca.cwds.security.jwt;
 
 import javax.crypto.SecretKey;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.Map;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /**
  * Created by dmitry.rudenko on 6/30/2017.
+ *
+ * <p>Keys are read once into an immutable {@link KeyRing}. The keystore file is checked for
+ * changes at most every {@code keyStore.refreshInterval} milliseconds and the key ring is
+ * replaced when the file is modified, so keys can be rotated without a restart. If the changed
+ * file can't be read the previous key ring stays in use.</p>
  */
 class JCEKSKeyProvider implements KeyProvider {
   private JwtConfiguration configuration;
 
+  private volatile KeyRing keyRing;
+  private volatile long nextCheckTime;
+  private long lastModified;
+  private long length;
+
   public JCEKSKeyProvider(JwtConfiguration configuration) {
     this.configuration = configuration;
   }
 
   @Override
   public PrivateKey getSigningKey() {
-    try {
-      return (PrivateKey) getKeyStore().getKey(configuration.getKeyStore().getAlias(), configuration.getKeyStore().getKeyPassword().toCharArray());
-    } catch (Exception e) {
-      throw new JwtException(e);
-    }
+    return getKeyRing().getSigningKey();
   }
 
   @Override
   public PublicKey getValidatingKey() {
-    try {
-      return getKeyStore().getCertificate(configuration.getKeyStore().getAlias()).getPublicKey();
-    } catch (Exception e) {
-      throw new JwtException(e);
-    }
+    return getKeyRing().getValidatingKey();
   }
 
   @Override
   public SecretKey getEncryptingKey() {
+    return getKeyRing().getEncryptingKey();
+  }
+
+  @Override
+  public String getSigningKeyId() {
+    return getKeyRing().getSigningKeyId();
+  }
+
+  @Override
+  public String getEncryptingKeyId() {
+    return getKeyRing().getEncryptingKeyId();
+  }
+
+  @Override
+  public PublicKey getValidatingKey(String keyId) {
+    return getKeyRing().getValidatingKey(keyId);
+  }
+
+  @Override
+  public SecretKey getEncryptingKey(String keyId) {
+    return getKeyRing().getEncryptingKey(keyId);
+  }
+
+  @Override
+  public Map<String, PublicKey> getValidatingKeys() {
+    return getKeyRing().getValidatingKeys();
+  }
+
+  @Override
+  public Map<String, SecretKey> getEncryptingKeys() {
+    return getKeyRing().getEncryptingKeys();
+  }
+
+  @Override
+  public Map<String, SecretKey> getMacKeys() {
+    return getKeyRing().getMacKeys();
+  }
+
+  KeyRing getKeyRing() {
+    KeyRing current = keyRing;
+    if (current == null || System.currentTimeMillis() >= nextCheckTime) {
+      current = refresh();
+    }
+    return current;
+  }
+
+  @SuppressFBWarnings("PATH_TRAVERSAL_IN") //keystore path taken from config file
+  private synchronized KeyRing refresh() {
+    if (keyRing != null && System.currentTimeMillis() < nextCheckTime) {
+      return keyRing;
+    }
+    JwtConfiguration.KeyStoreConfiguration keyStoreConfiguration = configuration.getKeyStore();
+    long refreshInterval = keyStoreConfiguration.getRefreshInterval();
+    nextCheckTime = refreshInterval > 0
+        ? System.currentTimeMillis() + refreshInterval : Long.MAX_VALUE;
+
+    File file = new File(keyStoreConfiguration.getPath());
+    long fileLastModified = file.lastModified();
+    long fileLength = file.length();
+    if (keyRing != null && fileLastModified == lastModified && fileLength == length) {
+      return keyRing;
+    }
     try {
-      return (SecretKey) getKeyStore().getKey(configuration.getKeyStore().getEncAlias(), configuration.getKeyStore().getEncKeyPassword().toCharArray());
+      keyRing = KeyRing.load(getKeyStore(file), keyStoreConfiguration);
+      lastModified = fileLastModified;
+      length = fileLength;
     } catch (Exception e) {
-      throw new JwtException(e);
+      if (keyRing == null) {
+        nextCheckTime = 0;
+        throw e instanceof JwtException ? (JwtException) e : new JwtException(e);
+      }
     }
+    return keyRing;
   }
 
-  @SuppressFBWarnings("PATH_TRAVERSAL_IN") //keystore path taken from config file
-  private KeyStore getKeyStore() {
+  private KeyStore getKeyStore(File file) {
     try {
       KeyStore ks = KeyStore.getInstance("JCEKS");
-      try (InputStream readStream = new FileInputStream(configuration.getKeyStore().getPath())) {
+      try (InputStream readStream = new FileInputStream(file)) {
         char[] keyPassword = configuration.getKeyStore().getPassword().toCharArray();
         ks.load(readStream, keyPassword);
         return ks;
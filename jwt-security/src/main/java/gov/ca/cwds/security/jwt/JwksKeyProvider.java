@@ -0,0 +1,152 @@
+package gov.ca.cwds.security.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.net.URL;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.crypto.SecretKey;
+
+/**
+ * Validating keys published by the token issuer as a JSON Web Key Set, so tokens are validated
+ * without calling the issuer. Keys are reloaded every {@code jwksRefreshInterval} milliseconds, a
+ * failed reload keeps the previous keys.
+ *
+ * <p>Only public keys are published, so this provider can't sign tokens. Encrypted tokens are
+ * decrypted with the keys of the configured keystore.</p>
+ */
+class JwksKeyProvider implements KeyProvider {
+
+  private static final int CONNECT_TIMEOUT = 5000;
+  private static final int READ_TIMEOUT = 5000;
+  private static final int SIZE_LIMIT = 51200;
+
+  private JwtConfiguration configuration;
+  private KeyProvider keyStoreProvider;
+
+  private volatile Map<String, PublicKey> validatingKeys;
+  private volatile long nextRefreshTime;
+
+  JwksKeyProvider(JwtConfiguration configuration) {
+    this.configuration = configuration;
+    if (configuration.getKeyStore() != null && configuration.getKeyStore().getPath() != null) {
+      keyStoreProvider = new JCEKSKeyProvider(configuration);
+    }
+  }
+
+  @Override
+  public PrivateKey getSigningKey() {
+    throw new JwtException("Tokens can't be signed with keys published by " + jwksUri());
+  }
+
+  @Override
+  public PublicKey getValidatingKey() {
+    return getValidatingKeys().values().stream().findFirst()
+        .orElseThrow(() -> new JwtException("No validating keys are published by " + jwksUri()));
+  }
+
+  @Override
+  public SecretKey getEncryptingKey() {
+    return getKeyStoreProvider().getEncryptingKey();
+  }
+
+  @Override
+  public String getSigningKeyId() {
+    return null;
+  }
+
+  @Override
+  public String getEncryptingKeyId() {
+    return keyStoreProvider == null ? null : keyStoreProvider.getEncryptingKeyId();
+  }
+
+  @Override
+  public PublicKey getValidatingKey(String keyId) {
+    PublicKey key = getValidatingKeys().get(keyId);
+    if (key == null) {
+      throw new JwtException("Validating key '" + keyId + "' is not found");
+    }
+    return key;
+  }
+
+  @Override
+  public SecretKey getEncryptingKey(String keyId) {
+    return getKeyStoreProvider().getEncryptingKey(keyId);
+  }
+
+  @Override
+  public Map<String, PublicKey> getValidatingKeys() {
+    Map<String, PublicKey> current = validatingKeys;
+    if (current == null || System.currentTimeMillis() >= nextRefreshTime) {
+      current = refresh();
+    }
+    return current;
+  }
+
+  @Override
+  public Map<String, SecretKey> getEncryptingKeys() {
+    return keyStoreProvider == null ? Collections.emptyMap() : keyStoreProvider.getEncryptingKeys();
+  }
+
+  @Override
+  public Map<String, SecretKey> getMacKeys() {
+    return Collections.emptyMap();
+  }
+
+  private synchronized Map<String, PublicKey> refresh() {
+    if (validatingKeys != null && System.currentTimeMillis() < nextRefreshTime) {
+      return validatingKeys;
+    }
+    nextRefreshTime = System.currentTimeMillis() + configuration.getJwksRefreshInterval();
+    try {
+      validatingKeys = load();
+    } catch (Exception e) {
+      if (validatingKeys == null) {
+        nextRefreshTime = 0;
+        throw new JwtException("Can't load validating keys from " + jwksUri(), e);
+      }
+    }
+    return validatingKeys;
+  }
+
+  @SuppressFBWarnings("URLCONNECTION_SSRF_FD") //JWKS URI taken from config file
+  private Map<String, PublicKey> load() throws Exception {
+    JWKSet jwkSet = JWKSet.load(new URL(jwksUri()), CONNECT_TIMEOUT, READ_TIMEOUT, SIZE_LIMIT);
+    Map<String, PublicKey> keys = new LinkedHashMap<>();
+    for (JWK jwk : jwkSet.getKeys()) {
+      PublicKey key = toPublicKey(jwk);
+      if (key != null && jwk.getKeyID() != null) {
+        keys.put(jwk.getKeyID(), key);
+      }
+    }
+    return Collections.unmodifiableMap(keys);
+  }
+
+  private static PublicKey toPublicKey(JWK jwk) throws JOSEException {
+    if (jwk instanceof RSAKey) {
+      return ((RSAKey) jwk).toRSAPublicKey();
+    }
+    if (jwk instanceof ECKey) {
+      return ((ECKey) jwk).toECPublicKey();
+    }
+    return null;
+  }
+
+  private KeyProvider getKeyStoreProvider() {
+    if (keyStoreProvider == null) {
+      throw new JwtException("Keystore with encrypting keys is not configured");
+    }
+    return keyStoreProvider;
+  }
+
+  private String jwksUri() {
+    return configuration.getJwksUri();
+  }
+}
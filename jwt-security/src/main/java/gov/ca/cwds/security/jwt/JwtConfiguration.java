@@ -1,5 +1,8 @@
 package gov.ca.cwds.security.jwt;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Created by dmitry.rudenko on 6/30/2017.
  */
@@ -8,7 +11,11 @@ public class JwtConfiguration {
   private String issuer;
   private boolean encryptionEnabled;
   private String encryptionMethod;
+  private String signingAlgorithm = "RS256";
   private boolean headless = true;
+  private int validationParallelism;
+  private String jwksUri;
+  private long jwksRefreshInterval = 300000;
 
   private KeyStoreConfiguration keyStore;
 
@@ -52,6 +59,17 @@ public class JwtConfiguration {
     this.encryptionMethod = encryptionMethod;
   }
 
+  /**
+   * @return JWS algorithm: RS256, PS256, ES256 or HS256
+   */
+  public String getSigningAlgorithm() {
+    return signingAlgorithm;
+  }
+
+  public void setSigningAlgorithm(String signingAlgorithm) {
+    this.signingAlgorithm = signingAlgorithm;
+  }
+
   public boolean isHeadless() {
     return headless;
   }
@@ -60,6 +78,40 @@ public class JwtConfiguration {
     this.headless = headless;
   }
 
+  /**
+   * @return number of threads validating a batch of tokens, not positive value means the number of
+   * processors
+   */
+  public int getValidationParallelism() {
+    return validationParallelism;
+  }
+
+  public void setValidationParallelism(int validationParallelism) {
+    this.validationParallelism = validationParallelism;
+  }
+
+  /**
+   * @return URI of the JSON Web Key Set with validating keys, the keystore is used when not set
+   */
+  public String getJwksUri() {
+    return jwksUri;
+  }
+
+  public void setJwksUri(String jwksUri) {
+    this.jwksUri = jwksUri;
+  }
+
+  /**
+   * @return how often validating keys are reloaded from {@code jwksUri} in milliseconds
+   */
+  public long getJwksRefreshInterval() {
+    return jwksRefreshInterval;
+  }
+
+  public void setJwksRefreshInterval(long jwksRefreshInterval) {
+    this.jwksRefreshInterval = jwksRefreshInterval;
+  }
+
   public static class KeyStoreConfiguration {
     private String path;
     private String alias;
@@ -67,6 +119,8 @@ public class JwtConfiguration {
     private String keyPassword;
     private String encAlias;
     private String encKeyPassword;
+    private List<String> rotationAliases = new ArrayList<>();
+    private long refreshInterval = 60000;
 
     public String getPath() {
       return path;
@@ -115,6 +169,30 @@ public class JwtConfiguration {
     public void setEncKeyPassword(String encKeyPassword) {
       this.encKeyPassword = encKeyPassword;
     }
+
+    /**
+     * @return aliases of retired keys which still validate and decrypt tokens carrying their
+     * {@code kid}
+     */
+    public List<String> getRotationAliases() {
+      return rotationAliases;
+    }
+
+    public void setRotationAliases(List<String> rotationAliases) {
+      this.rotationAliases = rotationAliases;
+    }
+
+    /**
+     * @return how often the keystore file is checked for changes in milliseconds, not positive
+     * value disables the check
+     */
+    public long getRefreshInterval() {
+      return refreshInterval;
+    }
+
+    public void setRefreshInterval(long refreshInterval) {
+      this.refreshInterval = refreshInterval;
+    }
   }
 }
 
@@ -0,0 +1,307 @@
+package gov.ca.cwds.security.jwt;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEDecrypter;
+import com.nimbusds.jose.JWEEncrypter;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.KeyLengthException;
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.bc.BouncyCastleProviderSingleton;
+import com.nimbusds.jose.jca.JCAAware;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.crypto.SecretKey;
+
+/**
+ * Signer, verifiers, encrypter, decrypters and headers built once for the keys of a key provider.
+ *
+ * <p>{@code RS256} and {@code PS256} use RSA key pairs, {@code ES256} uses P-256 EC key pairs and
+ * {@code HS256} uses HMAC secret keys of at least 256 bits. Only keys of the configured algorithm
+ * are used for validation.</p>
+ *
+ * <p>Nimbus crypto primitives are thread-safe, so a single instance is shared by all calls until
+ * the key provider returns another set of keys. Headers are built by parsing their serialized
+ * form, which makes them return the cached Base64 on every token.</p>
+ */
+final class JwtCrypto {
+
+  private static final Set<JWSAlgorithm> SIGNING_ALGORITHMS = Collections.unmodifiableSet(
+      new HashSet<>(Arrays.asList(JWSAlgorithm.RS256, JWSAlgorithm.PS256, JWSAlgorithm.ES256,
+          JWSAlgorithm.HS256)));
+
+  private final Map<String, PublicKey> validatingKeys;
+  private final Map<String, SecretKey> encryptingKeys;
+  private final Map<String, SecretKey> macKeys;
+
+  private final JWSAlgorithm signingAlgorithm;
+
+  private final String signingKeyId;
+  private final JWSSigner signer;
+  private final JWSHeader jwsHeader;
+  private final Map<String, JWSVerifier> verifiers = new LinkedHashMap<>();
+  private final List<JWK> publicKeys = new ArrayList<>();
+  private final String jwkSet;
+
+  private final String encryptingKeyId;
+  private final JWEEncrypter encrypter;
+  private final JWEHeader jweHeader;
+  private final Map<String, JWEDecrypter> decrypters = new LinkedHashMap<>();
+
+  private final String headlessHeader;
+
+  JwtCrypto(KeyProvider keyProvider, JwtConfiguration configuration) {
+    try {
+      validatingKeys = keyProvider.getValidatingKeys();
+      encryptingKeys = keyProvider.getEncryptingKeys();
+      macKeys = keyProvider.getMacKeys();
+      boolean encryptionEnabled = configuration.isEncryptionEnabled();
+      boolean headless = configuration.isHeadless();
+
+      signingAlgorithm = signingAlgorithm(configuration);
+      signingKeyId = keyProvider.getSigningKeyId();
+      signer = signer(keyProvider);
+      // the outer header of a headless token is stripped, so it must not depend on the key
+      jwsHeader = jwsHeader(headless && !encryptionEnabled ? null : signingKeyId);
+      if (JWSAlgorithm.Family.HMAC_SHA.contains(signingAlgorithm)) {
+        macKeys.forEach(this::putMacVerifier);
+      } else {
+        validatingKeys.forEach(this::putVerifier);
+      }
+
+      encryptingKeyId = keyProvider.getEncryptingKeyId();
+      SecretKey encryptingKey = encryptionEnabled ? encryptingKeys.get(encryptingKeyId) : null;
+      encrypter = encryptingKey == null ? null : new DirectEncrypter(encryptingKey);
+      jweHeader = encryptionEnabled
+          ? jweHeader(configuration, headless ? null : encryptingKeyId) : null;
+      for (Map.Entry<String, SecretKey> entry : encryptingKeys.entrySet()) {
+        putDecrypter(entry.getKey(), entry.getValue());
+      }
+
+      jwkSet = new JWKSet(publicKeys).toJSONObject(true).toJSONString();
+
+      headlessHeader = encryptionEnabled
+          ? jweHeader(configuration, null).toBase64URL().toString()
+          : jwsHeader(null).toBase64URL().toString();
+    } catch (JOSEException | ParseException e) {
+      throw new JwtException(e);
+    }
+  }
+
+  /**
+   * @return true if this instance was built for the keys currently returned by the provider
+   */
+  boolean isBuiltFor(KeyProvider keyProvider) {
+    return validatingKeys == keyProvider.getValidatingKeys()
+        && encryptingKeys == keyProvider.getEncryptingKeys()
+        && macKeys == keyProvider.getMacKeys();
+  }
+
+  JWSSigner getSigner() {
+    if (signer == null) {
+      throw new JwtException("Signing key '" + signingKeyId + "' is not found");
+    }
+    return signer;
+  }
+
+  JWSHeader getJwsHeader() {
+    return jwsHeader;
+  }
+
+  JWSVerifier getVerifier(String keyId) {
+    JWSVerifier verifier = verifiers.get(keyId);
+    if (verifier == null) {
+      throw new JwtException("Validating key '" + keyId + "' is not found");
+    }
+    return verifier;
+  }
+
+  /**
+   * @return verifiers of all known keys, the current one first
+   */
+  Collection<JWSVerifier> getVerifiers() {
+    JWSVerifier current = signingKeyId == null ? null : verifiers.get(signingKeyId);
+    if (current == null) {
+      return Collections.unmodifiableCollection(verifiers.values());
+    }
+    List<JWSVerifier> result = new ArrayList<>(verifiers.size());
+    result.add(current);
+    verifiers.forEach((keyId, verifier) -> {
+      if (verifier != current) {
+        result.add(verifier);
+      }
+    });
+    return result;
+  }
+
+  JWEEncrypter getEncrypter() {
+    if (encrypter == null) {
+      throw new JwtException("Encrypting key '" + encryptingKeyId + "' is not found");
+    }
+    return encrypter;
+  }
+
+  JWEHeader getJweHeader() {
+    return jweHeader;
+  }
+
+  JWEDecrypter getDecrypter(String keyId) {
+    JWEDecrypter decrypter = decrypters.get(keyId);
+    if (decrypter == null) {
+      throw new JwtException("Encrypting key '" + keyId + "' is not found");
+    }
+    return decrypter;
+  }
+
+  /**
+   * @return decrypters of all known keys, the current one first
+   */
+  Collection<JWEDecrypter> getDecrypters() {
+    return Collections.unmodifiableCollection(decrypters.values());
+  }
+
+  /**
+   * @return JSON Web Key Set of the public validating keys, empty for HMAC signatures
+   */
+  String getJwkSet() {
+    return jwkSet;
+  }
+
+  /**
+   * @return Base64 of the header stripped from headless tokens
+   */
+  String getHeadlessHeader() {
+    return headlessHeader;
+  }
+
+  private void putVerifier(String keyId, PublicKey key) {
+    try {
+      if (key instanceof RSAPublicKey && JWSAlgorithm.Family.RSA.contains(signingAlgorithm)) {
+        RSASSAVerifier verifier = new RSASSAVerifier((RSAPublicKey) key);
+        setProvider(verifier);
+        verifiers.put(keyId, verifier);
+        publicKeys.add(new RSAKey.Builder((RSAPublicKey) key)
+            .keyID(keyId).keyUse(KeyUse.SIGNATURE).algorithm(signingAlgorithm).build());
+      } else if (key instanceof ECPublicKey && JWSAlgorithm.Family.EC.contains(signingAlgorithm)) {
+        ECPublicKey ecKey = (ECPublicKey) key;
+        ECDSAVerifier verifier = new ECDSAVerifier(ecKey);
+        if (verifier.supportedECDSAAlgorithm().equals(signingAlgorithm)) {
+          verifiers.put(keyId, verifier);
+          publicKeys.add(new ECKey.Builder(ECKey.Curve.forECParameterSpec(ecKey.getParams()), ecKey)
+              .keyID(keyId).keyUse(KeyUse.SIGNATURE).algorithm(signingAlgorithm).build());
+        }
+      }
+    } catch (JOSEException e) {
+      // unsupported curve
+    }
+  }
+
+  private void putMacVerifier(String keyId, SecretKey key) {
+    try {
+      verifiers.put(keyId, new MACVerifier(key));
+    } catch (JOSEException e) {
+      // too short for the algorithm
+    }
+  }
+
+  private void putDecrypter(String keyId, SecretKey key) {
+    try {
+      decrypters.put(keyId, new DirectDecrypter(key));
+    } catch (KeyLengthException e) {
+      // not a content encryption key
+    }
+  }
+
+  /**
+   * Validating only services may have no signing key.
+   */
+  private JWSSigner signer(KeyProvider keyProvider) throws JOSEException {
+    if (JWSAlgorithm.Family.HMAC_SHA.contains(signingAlgorithm)) {
+      SecretKey key = macKeys.get(signingKeyId);
+      return key == null ? null : new MACSigner(key);
+    }
+    PrivateKey key;
+    try {
+      key = keyProvider.getSigningKey();
+    } catch (JwtException e) {
+      return null;
+    }
+    if (JWSAlgorithm.Family.EC.contains(signingAlgorithm)) {
+      if (!(key instanceof ECPrivateKey)) {
+        throw new JwtException("Signing key '" + signingKeyId + "' is not an EC key");
+      }
+      return new ECDSASigner((ECPrivateKey) key);
+    }
+    if (!(key instanceof RSAPrivateKey)) {
+      throw new JwtException("Signing key '" + signingKeyId + "' is not an RSA key");
+    }
+    RSASSASigner signer = new RSASSASigner(key);
+    setProvider(signer);
+    return signer;
+  }
+
+  /**
+   * JDK 8 providers have no {@code SHA256withRSAandMGF1} signature needed for {@code PS256}.
+   */
+  private void setProvider(JCAAware<JCAContext> jcaAware) {
+    if (JWSAlgorithm.PS256.equals(signingAlgorithm)) {
+      jcaAware.getJCAContext().setProvider(BouncyCastleProviderSingleton.getInstance());
+    }
+  }
+
+  private static JWSAlgorithm signingAlgorithm(JwtConfiguration configuration) {
+    JWSAlgorithm algorithm = configuration.getSigningAlgorithm() == null
+        ? JWSAlgorithm.RS256 : JWSAlgorithm.parse(configuration.getSigningAlgorithm());
+    if (!SIGNING_ALGORITHMS.contains(algorithm)) {
+      throw new JwtException("Unsupported signing algorithm: " + algorithm);
+    }
+    return algorithm;
+  }
+
+  private JWSHeader jwsHeader(String keyId) throws ParseException {
+    return JWSHeader.parse(new JWSHeader.Builder(signingAlgorithm).keyID(keyId).build()
+        .toBase64URL());
+  }
+
+  private static JWEHeader jweHeader(JwtConfiguration configuration, String keyId)
+      throws ParseException {
+    return JWEHeader.parse(new JWEHeader.Builder(JWEAlgorithm.DIR,
+        EncryptionMethod.parse(configuration.getEncryptionMethod()))
+        .contentType("JWT")
+        .keyID(keyId)
+        .build()
+        .toBase64URL());
+  }
+}
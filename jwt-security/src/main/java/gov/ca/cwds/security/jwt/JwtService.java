@@ -1,50 +1,51 @@
 package gov.ca.cwds.security.jwt;
 
-import com.nimbusds.jose.EncryptionMethod;
-import com.nimbusds.jose.Header;
-import com.nimbusds.jose.JWEAlgorithm;
-import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEDecrypter;
 import com.nimbusds.jose.JWEObject;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.Payload;
-import com.nimbusds.jose.crypto.DirectDecrypter;
-import com.nimbusds.jose.crypto.DirectEncrypter;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.JWTClaimsSet.Builder;
 import com.nimbusds.jwt.SignedJWT;
-import java.security.GeneralSecurityException;
-import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Created by dmitry.rudenko on 6/30/2017.
  */
-public class JwtService {
+public class JwtService implements AutoCloseable {
 
   public static final String IDENTITY_CLAIM = "identity";
 
   private KeyProvider keyProvider;
   private JwtConfiguration configuration;
+  private volatile JwtCrypto crypto;
+  private ForkJoinPool validationPool;
+  private boolean closed;
 
   public JwtService(JwtConfiguration configuration) {
     this.configuration = configuration;
-    this.keyProvider = new JCEKSKeyProvider(configuration);
+    this.keyProvider = configuration.getJwksUri() == null
+        ? new JCEKSKeyProvider(configuration) : new JwksKeyProvider(configuration);
   }
 
 
   public String generate(String id, String subject, Map<String, String> customJwtClaimsMap) {
     try {
+      JwtCrypto crypto = crypto();
       JWTClaimsSet claimsSet = prepareClaims(id, subject, customJwtClaimsMap);
-      SignedJWT signedJWT = sign(claimsSet);
+      SignedJWT signedJWT = sign(claimsSet, crypto);
       String token;
       if (configuration.isEncryptionEnabled()) {
-        JWEObject jweObject = encrypt(signedJWT);
+        JWEObject jweObject = encrypt(signedJWT, crypto);
         token = jweObject.serialize();
       } else {
         token = signedJWT.serialize();
@@ -63,54 +64,122 @@ public class JwtService {
 
   public String validate(String token) throws JwtException {
     try {
-      String tokenWithHeader = addHeader(token);
-      SignedJWT signedJWT;
-      if (configuration.isEncryptionEnabled()) {
-        signedJWT = decrypt(tokenWithHeader);
-      } else {
-        signedJWT = SignedJWT.parse(tokenWithHeader);
-      }
-      validateSignature(signedJWT);
+      return validateAndGetClaims(token).getStringClaim(IDENTITY_CLAIM);
+    } catch (JwtException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new JwtException(e);
+    }
+  }
+
+  /**
+   * @return all claims of the validated token, e.g. its expiration time
+   */
+  public JWTClaimsSet validateAndGetClaims(String token) throws JwtException {
+    try {
+      JwtCrypto crypto = crypto();
+      SignedJWT signedJWT = parse(token, crypto);
+      validateSignature(signedJWT, crypto);
       JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
       validateClaims(claimsSet);
-      return claimsSet.getStringClaim(IDENTITY_CLAIM);
+      return claimsSet;
     } catch (Exception e) {
       throw new JwtException(e);
     }
   }
 
-  private JWEObject encrypt(SignedJWT signedJWT) throws JwtException {
-    try {
-      JWEObject jweObject = new JWEObject(
-              jweHeader(),
-              new Payload(signedJWT));
+  /**
+   * @return JSON Web Key Set of the public keys validating tokens of this service
+   */
+  public String getJwkSet() {
+    return crypto().getJwkSet();
+  }
 
-      jweObject.encrypt(new DirectEncrypter(keyProvider.getEncryptingKey().getEncoded()));
-      return jweObject;
+  /**
+   * Validates a batch of tokens, decryption and signature verification run in parallel on the
+   * validation pool of this service. The pool has {@code validationParallelism} threads, it's
+   * created by the first batch and shut down by {@link #close()}.
+   *
+   * @return validation result for every token in iteration order
+   */
+  public List<JwtValidationResult> validateAll(Collection<String> tokens) {
+    List<JwtValidationResult> results = new ArrayList<>(tokens.size());
+    if (tokens.size() < 2) {
+      tokens.forEach(token -> results.add(validationResult(token)));
+      return results;
+    }
+    ForkJoinPool pool = validationPool();
+    List<ForkJoinTask<JwtValidationResult>> tasks = new ArrayList<>(tokens.size());
+    tokens.forEach(token -> tasks.add(pool.submit(() -> validationResult(token))));
+    tasks.forEach(task -> results.add(task.join()));
+    return results;
+  }
+
+  /**
+   * Shuts down the validation pool, batches being validated are completed.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    if (validationPool != null) {
+      validationPool.shutdown();
+    }
+  }
+
+  private synchronized ForkJoinPool validationPool() {
+    if (closed) {
+      throw new JwtException("JwtService is closed");
+    }
+    if (validationPool == null) {
+      int parallelism = configuration.getValidationParallelism();
+      validationPool = new ForkJoinPool(
+          parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+    return validationPool;
+  }
+
+  private JwtValidationResult validationResult(String token) {
+    try {
+      JWTClaimsSet claims = validateAndGetClaims(token);
+      return JwtValidationResult
+          .valid(token, claims.getStringClaim(IDENTITY_CLAIM), claims.getExpirationTime());
+    } catch (JwtException e) {
+      return JwtValidationResult.invalid(token, e);
     } catch (Exception e) {
-      throw new JwtException(e);
+      return JwtValidationResult.invalid(token, new JwtException(e));
     }
   }
 
-  private JWEHeader jweHeader() {
-    return new JWEHeader.Builder(JWEAlgorithm.DIR, EncryptionMethod.parse(configuration.getEncryptionMethod()))
-            .contentType("JWT")
-            .build();
+  private SignedJWT parse(String token, JwtCrypto crypto) throws ParseException {
+    String tokenWithHeader = addHeader(token, crypto);
+    if (configuration.isEncryptionEnabled()) {
+      return decrypt(tokenWithHeader, crypto);
+    }
+    return SignedJWT.parse(tokenWithHeader);
   }
 
-  private SignedJWT sign(JWTClaimsSet claimsSet) throws JwtException {
+  private JWEObject encrypt(SignedJWT signedJWT, JwtCrypto crypto) throws JwtException {
     try {
-      JWSSigner signer = new RSASSASigner(keyProvider.getSigningKey());
-      SignedJWT signedJWT = new SignedJWT(jwsHeader(), claimsSet);
-      signedJWT.sign(signer);
-      return signedJWT;
+      JWEObject jweObject = new JWEObject(crypto.getJweHeader(), new Payload(signedJWT));
+      jweObject.encrypt(crypto.getEncrypter());
+      return jweObject;
+    } catch (JwtException e) {
+      throw e;
     } catch (Exception e) {
       throw new JwtException(e);
     }
   }
 
-  private JWSHeader jwsHeader() {
-    return new JWSHeader(JWSAlgorithm.RS256);
+  private SignedJWT sign(JWTClaimsSet claimsSet, JwtCrypto crypto) throws JwtException {
+    try {
+      SignedJWT signedJWT = new SignedJWT(crypto.getJwsHeader(), claimsSet);
+      signedJWT.sign(crypto.getSigner());
+      return signedJWT;
+    } catch (JwtException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new JwtException(e);
+    }
   }
 
   private JWTClaimsSet prepareClaims(String id, String subject, Map<String, String> claimsMap) {
@@ -127,25 +196,67 @@ public class JwtService {
     return builder.build();
   }
 
-  private void validateSignature(SignedJWT signedJWT) throws JwtException {
-    boolean verified = false;
+  /**
+   * Tokens without {@code kid} are checked with every configured key, the current one first, so
+   * headless tokens signed before a key rotation stay valid while the retired key is configured.
+   */
+  private void validateSignature(SignedJWT signedJWT, JwtCrypto crypto) throws JwtException {
     try {
-      verified = signedJWT.verify(new RSASSAVerifier((RSAPublicKey) keyProvider.getValidatingKey()));
+      String keyId = signedJWT.getHeader().getKeyID();
+      if (keyId != null) {
+        if (!signedJWT.verify(crypto.getVerifier(keyId))) {
+          fail();
+        }
+        return;
+      }
+      for (JWSVerifier verifier : crypto.getVerifiers()) {
+        if (verify(signedJWT, verifier)) {
+          return;
+        }
+      }
+    } catch (JwtException e) {
+      throw e;
     } catch (Exception e) {
       throw new JwtException(e);
     }
-    if (!verified) {
-      fail();
+    fail();
+  }
+
+  private static boolean verify(SignedJWT signedJWT, JWSVerifier verifier) {
+    try {
+      return signedJWT.verify(verifier);
+    } catch (JOSEException e) {
+      // the key doesn't support the algorithm of the token
+      return false;
     }
   }
 
-  private SignedJWT decrypt(String token) throws JwtException {
+  /**
+   * Tokens without {@code kid} are decrypted with every configured key, the current one first.
+   */
+  private SignedJWT decrypt(String token, JwtCrypto crypto) throws JwtException {
     try {
-      SignedJWT signedJWT;
       JWEObject jweObject = JWEObject.parse(token);
-      jweObject.decrypt(new DirectDecrypter(keyProvider.getEncryptingKey().getEncoded()));
-      signedJWT = jweObject.getPayload().toSignedJWT();
-      return signedJWT;
+      String keyId = jweObject.getHeader().getKeyID();
+      if (keyId != null) {
+        jweObject.decrypt(crypto.getDecrypter(keyId));
+        return jweObject.getPayload().toSignedJWT();
+      }
+      Exception failure = null;
+      for (JWEDecrypter decrypter : crypto.getDecrypters()) {
+        try {
+          if (jweObject.getState() != JWEObject.State.ENCRYPTED) {
+            jweObject = JWEObject.parse(token);
+          }
+          jweObject.decrypt(decrypter);
+          return jweObject.getPayload().toSignedJWT();
+        } catch (JOSEException e) {
+          failure = e;
+        }
+      }
+      throw new JwtException("Token decryption failed", failure);
+    } catch (JwtException e) {
+      throw e;
     } catch (Exception e) {
       throw new JwtException(e);
     }
@@ -166,14 +277,25 @@ public class JwtService {
     return token;
   }
 
-  private String addHeader(String token) {
+  private String addHeader(String token, JwtCrypto crypto) {
     if (configuration.isHeadless()) {
-      Header header = configuration.isEncryptionEnabled() ? jweHeader() : jwsHeader();
-      return header.toBase64URL().toString() + token;
+      return crypto.getHeadlessHeader() + token;
     }
     return token;
   }
 
+  /**
+   * Crypto primitives are rebuilt only when the key provider returns another set of keys.
+   */
+  private JwtCrypto crypto() {
+    JwtCrypto current = crypto;
+    if (current == null || !current.isBuiltFor(keyProvider)) {
+      current = new JwtCrypto(keyProvider, configuration);
+      crypto = current;
+    }
+    return current;
+  }
+
   private void fail() throws JwtException {
     throw new JwtException("Token validation failed");
   }
@@ -0,0 +1,60 @@
+package gov.ca.cwds.security.jwt;
+
+import java.util.Date;
+
+/**
+ * Outcome of validating a single token of a batch, holds either the identity claim and expiration
+ * time or the error.
+ */
+public class JwtValidationResult {
+
+  private final String token;
+  private final String identity;
+  private final Date expirationTime;
+  private final JwtException error;
+
+  private JwtValidationResult(String token, String identity, Date expirationTime,
+      JwtException error) {
+    this.token = token;
+    this.identity = identity;
+    this.expirationTime = expirationTime;
+    this.error = error;
+  }
+
+  static JwtValidationResult valid(String token, String identity, Date expirationTime) {
+    return new JwtValidationResult(token, identity, new Date(expirationTime.getTime()), null);
+  }
+
+  static JwtValidationResult invalid(String token, JwtException error) {
+    return new JwtValidationResult(token, null, null, error);
+  }
+
+  public String getToken() {
+    return token;
+  }
+
+  /**
+   * @return identity claim or null if the token is not valid
+   */
+  public String getIdentity() {
+    return identity;
+  }
+
+  /**
+   * @return expiration time of the token or null if the token is not valid
+   */
+  public Date getExpirationTime() {
+    return expirationTime == null ? null : new Date(expirationTime.getTime());
+  }
+
+  /**
+   * @return validation error or null if the token is valid
+   */
+  public JwtException getError() {
+    return error;
+  }
+
+  public boolean isValid() {
+    return error == null;
+  }
+}
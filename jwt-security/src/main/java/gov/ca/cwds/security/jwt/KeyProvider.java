@@ -3,6 +3,7 @@ package gov.ca.cwds.security.jwt;
 import javax.crypto.SecretKey;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.Map;
 
 /**
  * Created by dmitry.rudenko on 6/30/2017.
@@ -13,4 +14,33 @@ interface KeyProvider {
   PublicKey getValidatingKey() throws JwtException;
 
   SecretKey getEncryptingKey() throws JwtException;
+
+  /**
+   * @return {@code kid} of the current signing key
+   */
+  String getSigningKeyId() throws JwtException;
+
+  /**
+   * @return {@code kid} of the current encrypting key
+   */
+  String getEncryptingKeyId() throws JwtException;
+
+  PublicKey getValidatingKey(String keyId) throws JwtException;
+
+  SecretKey getEncryptingKey(String keyId) throws JwtException;
+
+  /**
+   * @return all validating keys by {@code kid}, the current one first
+   */
+  Map<String, PublicKey> getValidatingKeys() throws JwtException;
+
+  /**
+   * @return all encrypting keys by {@code kid}, the current one first
+   */
+  Map<String, SecretKey> getEncryptingKeys() throws JwtException;
+
+  /**
+   * @return all HMAC keys by {@code kid}, the current signing one first
+   */
+  Map<String, SecretKey> getMacKeys() throws JwtException;
 }
@@ -0,0 +1,164 @@
+package gov.ca.cwds.security.jwt;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.crypto.SecretKey;
+
+/**
+ * Immutable snapshot of the configured keys of a keystore. Keys are identified by their keystore
+ * alias, which is used as {@code kid}. Current keys come first in iteration order, followed by
+ * the keys of {@code rotationAliases}. Other entries of the keystore are ignored.
+ *
+ * <p>Secret keys of {@code Hmac*} algorithms are MAC keys for {@code HS256} signatures, other
+ * secret keys are content encryption keys.</p>
+ */
+final class KeyRing {
+
+  private final String signingKeyId;
+  private final PrivateKey signingKey;
+  private final String encryptingKeyId;
+  private final Map<String, PublicKey> validatingKeys;
+  private final Map<String, SecretKey> encryptingKeys;
+  private final Map<String, SecretKey> macKeys;
+
+  private KeyRing(String signingKeyId, PrivateKey signingKey, String encryptingKeyId,
+      Map<String, PublicKey> validatingKeys, Map<String, SecretKey> encryptingKeys,
+      Map<String, SecretKey> macKeys) {
+    this.signingKeyId = signingKeyId;
+    this.signingKey = signingKey;
+    this.encryptingKeyId = encryptingKeyId;
+    this.validatingKeys = Collections.unmodifiableMap(validatingKeys);
+    this.encryptingKeys = Collections.unmodifiableMap(encryptingKeys);
+    this.macKeys = Collections.unmodifiableMap(macKeys);
+  }
+
+  /**
+   * Reads the signing key configured by {@code alias}, the encryption key configured by
+   * {@code encAlias} and the retired keys listed in {@code rotationAliases}. Retired keys are used
+   * for validation and decryption only.
+   */
+  static KeyRing load(KeyStore keyStore, JwtConfiguration.KeyStoreConfiguration configuration)
+      throws GeneralSecurityException {
+    String signingKeyId = configuration.getAlias();
+    PrivateKey signingKey = null;
+    Map<String, PublicKey> validatingKeys = new LinkedHashMap<>();
+    Map<String, SecretKey> macKeys = new LinkedHashMap<>();
+    char[] keyPassword = password(configuration.getKeyPassword());
+    if (signingKeyId != null && keyStore.isKeyEntry(signingKeyId)) {
+      Key key = keyStore.getKey(signingKeyId, keyPassword);
+      if (key instanceof PrivateKey) {
+        signingKey = (PrivateKey) key;
+      }
+      putPublicKey(validatingKeys, keyStore, signingKeyId);
+      putSecretKey(macKeys, keyStore, signingKeyId, keyPassword, true);
+    }
+
+    String encryptingKeyId = configuration.getEncAlias();
+    Map<String, SecretKey> encryptingKeys = new LinkedHashMap<>();
+    char[] encKeyPassword = password(configuration.getEncKeyPassword());
+    if (encryptingKeyId != null) {
+      putSecretKey(encryptingKeys, keyStore, encryptingKeyId, encKeyPassword, false);
+    }
+
+    for (String alias : configuration.getRotationAliases()) {
+      putPublicKey(validatingKeys, keyStore, alias);
+      putSecretKey(macKeys, keyStore, alias, keyPassword, true);
+      putSecretKey(encryptingKeys, keyStore, alias, encKeyPassword, false);
+    }
+    return new KeyRing(signingKeyId, signingKey, encryptingKeyId, validatingKeys, encryptingKeys,
+        macKeys);
+  }
+
+  String getSigningKeyId() {
+    return signingKeyId;
+  }
+
+  PrivateKey getSigningKey() {
+    if (signingKey == null) {
+      throw new JwtException("Signing key '" + signingKeyId + "' is not found");
+    }
+    return signingKey;
+  }
+
+  String getEncryptingKeyId() {
+    return encryptingKeyId;
+  }
+
+  SecretKey getEncryptingKey() {
+    return getEncryptingKey(encryptingKeyId);
+  }
+
+  PublicKey getValidatingKey() {
+    return getValidatingKey(signingKeyId);
+  }
+
+  PublicKey getValidatingKey(String keyId) {
+    PublicKey key = validatingKeys.get(keyId);
+    if (key == null) {
+      throw new JwtException("Validating key '" + keyId + "' is not found");
+    }
+    return key;
+  }
+
+  SecretKey getEncryptingKey(String keyId) {
+    SecretKey key = encryptingKeys.get(keyId);
+    if (key == null) {
+      throw new JwtException("Encrypting key '" + keyId + "' is not found");
+    }
+    return key;
+  }
+
+  Map<String, PublicKey> getValidatingKeys() {
+    return validatingKeys;
+  }
+
+  Map<String, SecretKey> getEncryptingKeys() {
+    return encryptingKeys;
+  }
+
+  Map<String, SecretKey> getMacKeys() {
+    return macKeys;
+  }
+
+  private static void putPublicKey(Map<String, PublicKey> keys, KeyStore keyStore, String alias)
+      throws GeneralSecurityException {
+    if (!keys.containsKey(alias)) {
+      Certificate certificate = keyStore.getCertificate(alias);
+      if (certificate != null) {
+        keys.put(alias, certificate.getPublicKey());
+      }
+    }
+  }
+
+  private static void putSecretKey(Map<String, SecretKey> keys, KeyStore keyStore, String alias,
+      char[] password, boolean mac) throws GeneralSecurityException {
+    if (password == null || keys.containsKey(alias)
+        || !keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+      return;
+    }
+    try {
+      Key key = keyStore.getKey(alias, password);
+      if (key instanceof SecretKey && isMacKey(key) == mac) {
+        keys.put(alias, (SecretKey) key);
+      }
+    } catch (UnrecoverableKeyException e) {
+      // protected with another password, not an encryption key of this service
+    }
+  }
+
+  private static boolean isMacKey(Key key) {
+    return key.getAlgorithm() != null && key.getAlgorithm().startsWith("Hmac");
+  }
+
+  private static char[] password(String password) {
+    return password == null ? null : password.toCharArray();
+  }
+}
@@ -2,16 +2,33 @@ package gov.ca.cwds.security.jwt;
 
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.Arrays;
+import java.util.Collections;
 
 /**
  * Created by dmitry.rudenko on 7/25/2017.
  */
 public class JCEKSKeyProviderTest {
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   private JwtConfiguration configuration;
   private KeyProvider keyProvider;
 
@@ -54,4 +71,122 @@ public class JCEKSKeyProviderTest {
     PrivateKey key = keyProvider.getSigningKey();
     Assert.assertNotNull(key);
   }
+
+  @Test
+  public void testKeysAreCached() {
+    Assert.assertSame(keyProvider.getValidatingKey(), keyProvider.getValidatingKey());
+    Assert.assertSame(keyProvider.getEncryptingKey(), keyProvider.getEncryptingKey());
+    Assert.assertSame(keyProvider.getSigningKey(), keyProvider.getSigningKey());
+  }
+
+  @Test
+  public void testGetKeysById() {
+    Assert.assertEquals("test", keyProvider.getSigningKeyId());
+    Assert.assertEquals("enc128", keyProvider.getEncryptingKeyId());
+    Assert.assertEquals(keyProvider.getValidatingKey(), keyProvider.getValidatingKey("test"));
+    Assert.assertEquals(keyProvider.getEncryptingKey(), keyProvider.getEncryptingKey("enc128"));
+    Assert.assertEquals("test", keyProvider.getValidatingKeys().keySet().iterator().next());
+    Assert.assertEquals("enc128", keyProvider.getEncryptingKeys().keySet().iterator().next());
+  }
+
+  @Test
+  public void testOnlyConfiguredKeysAreLoaded() {
+    Assert.assertEquals(1, keyProvider.getValidatingKeys().size());
+    Assert.assertEquals(1, keyProvider.getEncryptingKeys().size());
+    Assert.assertTrue(keyProvider.getMacKeys().isEmpty());
+  }
+
+  @Test
+  public void testMacKeys() {
+    configuration.getKeyStore().setRotationAliases(Arrays.asList("hs256", "es256"));
+    keyProvider = new JCEKSKeyProvider(configuration);
+    Assert.assertTrue(keyProvider.getMacKeys().containsKey("hs256"));
+    Assert.assertFalse(keyProvider.getMacKeys().containsKey("enc128"));
+    Assert.assertFalse(keyProvider.getEncryptingKeys().containsKey("hs256"));
+    Assert.assertTrue(keyProvider.getValidatingKeys().containsKey("es256"));
+  }
+
+  @Test
+  public void testRetiredKeyValidatesTokenWithKid() {
+    configuration.setEncryptionEnabled(false);
+    configuration.setHeadless(false);
+    String token = new JwtService(configuration).generate("id", "subject", "identity");
+    configuration.getKeyStore().setAlias("next");
+    configuration.getKeyStore().setRotationAliases(Collections.singletonList("test"));
+    Assert.assertEquals("identity", new JwtService(configuration).validate(token));
+  }
+
+  @Test(expected = JwtException.class)
+  public void testUnconfiguredKeyIsRejected() {
+    configuration.setEncryptionEnabled(false);
+    configuration.setHeadless(false);
+    String token = new JwtService(configuration).generate("id", "subject", "identity");
+    configuration.getKeyStore().setAlias("next");
+    new JwtService(configuration).validate(token);
+  }
+
+  @Test
+  public void testHeadlessTokenSignedWithRetiredKeyIsValid() {
+    configuration.setEncryptionEnabled(false);
+    String token = new JwtService(configuration).generate("id", "subject", "identity");
+    configuration.getKeyStore().setAlias("test2");
+    configuration.getKeyStore().setRotationAliases(Collections.singletonList("test"));
+    JwtService jwtService = new JwtService(configuration);
+    Assert.assertEquals("identity", jwtService.validate(token));
+    Assert.assertEquals("identity",
+        jwtService.validate(jwtService.generate("id", "subject", "identity")));
+  }
+
+  @Test
+  public void testEncryptedHeadlessTokenSignedWithRetiredKeyIsValid() {
+    String token = new JwtService(configuration).generate("id", "subject", "identity");
+    configuration.getKeyStore().setAlias("test2");
+    configuration.getKeyStore().setRotationAliases(Collections.singletonList("test"));
+    Assert.assertEquals("identity", new JwtService(configuration).validate(token));
+  }
+
+  @Test(expected = JwtException.class)
+  public void testHeadlessTokenSignedWithUnconfiguredKeyIsRejected() {
+    configuration.setEncryptionEnabled(false);
+    String token = new JwtService(configuration).generate("id", "subject", "identity");
+    configuration.getKeyStore().setAlias("test2");
+    new JwtService(configuration).validate(token);
+  }
+
+  @Test(expected = JwtException.class)
+  public void testGetUnknownKey() {
+    keyProvider.getEncryptingKey("unknown");
+  }
+
+  @Test
+  public void testKeyRotation() throws Exception {
+    File keyStoreFile = temporaryFolder.newFile("enc.jceks");
+    Files.copy(Paths.get(configuration.getKeyStore().getPath()), keyStoreFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+    configuration.getKeyStore().setPath(keyStoreFile.getPath());
+    configuration.getKeyStore().setRefreshInterval(1);
+    keyProvider = new JCEKSKeyProvider(configuration);
+    SecretKey oldKey = keyProvider.getEncryptingKey();
+
+    KeyStore keyStore = KeyStore.getInstance("JCEKS");
+    try (InputStream in = new FileInputStream(keyStoreFile)) {
+      keyStore.load(in, "test".toCharArray());
+    }
+    KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+    keyGenerator.init(128);
+    SecretKey newKey = keyGenerator.generateKey();
+    keyStore.setEntry("enc128b", new KeyStore.SecretKeyEntry(newKey),
+        new KeyStore.PasswordProtection("test".toCharArray()));
+    try (OutputStream out = new FileOutputStream(keyStoreFile)) {
+      keyStore.store(out, "test".toCharArray());
+    }
+    Assert.assertTrue(keyStoreFile.setLastModified(keyStoreFile.lastModified() + 10000));
+    configuration.getKeyStore().setEncAlias("enc128b");
+    configuration.getKeyStore().setRotationAliases(Collections.singletonList("enc128"));
+    Thread.sleep(5);
+
+    Assert.assertArrayEquals(newKey.getEncoded(), keyProvider.getEncryptingKey().getEncoded());
+    Assert.assertEquals("enc128b", keyProvider.getEncryptingKeyId());
+    Assert.assertEquals(oldKey, keyProvider.getEncryptingKey("enc128"));
+  }
 }
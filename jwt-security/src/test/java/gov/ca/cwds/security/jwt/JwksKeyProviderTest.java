@@ -0,0 +1,95 @@
+package gov.ca.cwds.security.jwt;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JwksKeyProviderTest {
+
+  private HttpServer server;
+  private JwtService issuer;
+  private final AtomicInteger requests = new AtomicInteger();
+
+  @Before
+  public void before() throws Exception {
+    issuer = new JwtService(configuration("test"));
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/jwks", exchange -> {
+      requests.incrementAndGet();
+      byte[] body = issuer.getJwkSet().getBytes(UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+  }
+
+  @After
+  public void after() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testJwkSetHasPublicKeysOnly() {
+    String jwkSet = issuer.getJwkSet();
+    Assert.assertTrue(jwkSet.contains("\"kid\":\"test\""));
+    Assert.assertFalse(jwkSet.contains("\"d\""));
+    Assert.assertFalse(jwkSet.contains("enc128"));
+    Assert.assertFalse(jwkSet.contains("hs256"));
+  }
+
+  @Test
+  public void testValidateWithPublishedKeys() {
+    JwtService validator = new JwtService(validatorConfiguration());
+    String token = issuer.generate("id", "subject", "identity");
+    Assert.assertEquals("identity", validator.validate(token));
+    Assert.assertEquals("identity", validator.validate(issuer.generate("id", "subject", "identity")));
+    Assert.assertEquals(1, requests.get());
+  }
+
+  @Test
+  public void testValidateEcSignature() {
+    JwtConfiguration configuration = configuration("es256");
+    configuration.setSigningAlgorithm("ES256");
+    issuer = new JwtService(configuration);
+    JwtConfiguration validatorConfiguration = validatorConfiguration();
+    validatorConfiguration.setSigningAlgorithm("ES256");
+    JwtService validator = new JwtService(validatorConfiguration);
+    Assert.assertEquals("identity", validator.validate(issuer.generate("id", "subject", "identity")));
+  }
+
+  @Test(expected = JwtException.class)
+  public void testCantSign() {
+    new JwtService(validatorConfiguration()).generate("id", "subject", "identity");
+  }
+
+  private JwtConfiguration validatorConfiguration() {
+    JwtConfiguration configuration = configuration(null);
+    configuration.setJwksUri("http://localhost:" + server.getAddress().getPort() + "/jwks");
+    return configuration;
+  }
+
+  private JwtConfiguration configuration(String alias) {
+    JwtConfiguration configuration = new JwtConfiguration();
+    configuration.setTimeout(30);
+    configuration.setIssuer("issuer");
+    configuration.setEncryptionEnabled(true);
+    configuration.setEncryptionMethod("A128GCM");
+    configuration.setKeyStore(new JwtConfiguration.KeyStoreConfiguration());
+    configuration.getKeyStore().setPath(getClass().getResource("/security/enc.jceks").getPath());
+    configuration.getKeyStore().setPassword("test");
+    configuration.getKeyStore().setAlias(alias);
+    configuration.getKeyStore().setKeyPassword("test");
+    configuration.getKeyStore().setEncAlias("enc128");
+    configuration.getKeyStore().setEncKeyPassword("test");
+    return configuration;
+  }
+}
@@ -0,0 +1,93 @@
+package gov.ca.cwds.security.jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class JwtSigningAlgorithmTest {
+
+  private final String signingAlgorithm;
+  private final String alias;
+  private final boolean encryptionEnabled;
+  private final boolean headless;
+
+  private JwtConfiguration configuration;
+
+  public JwtSigningAlgorithmTest(String signingAlgorithm, String alias, boolean encryptionEnabled,
+      boolean headless) {
+    this.signingAlgorithm = signingAlgorithm;
+    this.alias = alias;
+    this.encryptionEnabled = encryptionEnabled;
+    this.headless = headless;
+  }
+
+  @Parameters(name = "{0} encryption={2} headless={3}")
+  public static Collection<Object[]> parameters() {
+    String[][] algorithms = {{"RS256", "test"}, {"PS256", "test"}, {"ES256", "es256"},
+        {"HS256", "hs256"}};
+    List<Object[]> parameters = new ArrayList<>();
+    for (String[] algorithm : algorithms) {
+      for (boolean encryptionEnabled : new boolean[]{true, false}) {
+        for (boolean headless : new boolean[]{true, false}) {
+          parameters.add(new Object[]{algorithm[0], algorithm[1], encryptionEnabled, headless});
+        }
+      }
+    }
+    return parameters;
+  }
+
+  @Before
+  public void before() {
+    configuration = new JwtConfiguration();
+    configuration.setTimeout(30);
+    configuration.setIssuer("issuer");
+    configuration.setSigningAlgorithm(signingAlgorithm);
+    configuration.setEncryptionEnabled(encryptionEnabled);
+    configuration.setEncryptionMethod("A128GCM");
+    configuration.setHeadless(headless);
+    configuration.setKeyStore(new JwtConfiguration.KeyStoreConfiguration());
+    configuration.getKeyStore().setPath(getClass().getResource("/security/enc.jceks").getPath());
+    configuration.getKeyStore().setPassword("test");
+    configuration.getKeyStore().setAlias(alias);
+    configuration.getKeyStore().setKeyPassword("test");
+    configuration.getKeyStore().setEncAlias("enc128");
+    configuration.getKeyStore().setEncKeyPassword("test");
+  }
+
+  @Test
+  public void testGenerateAndValidate() {
+    JwtService jwtService = new JwtService(configuration);
+    String token = jwtService.generate("id", "subject", "identity");
+    Assert.assertEquals("identity", jwtService.validate(token));
+  }
+
+  @Test(expected = JwtException.class)
+  public void testTamperedToken() {
+    JwtService jwtService = new JwtService(configuration);
+    StringBuilder token = new StringBuilder(jwtService.generate("id", "subject", "identity"));
+    int index = token.lastIndexOf(".") - 5;
+    token.setCharAt(index, token.charAt(index) == '1' ? '2' : '1');
+    jwtService.validate(token.toString());
+  }
+
+  @Test(expected = JwtException.class)
+  public void testOtherAlgorithmToken() {
+    String token = new JwtService(configuration).generate("id", "subject", "identity");
+    JwtConfiguration other = new JwtConfiguration();
+    other.setTimeout(30);
+    other.setIssuer("issuer");
+    other.setSigningAlgorithm("HS256".equals(signingAlgorithm) ? "RS256" : "HS256");
+    other.setEncryptionEnabled(encryptionEnabled);
+    other.setEncryptionMethod("A128GCM");
+    other.setHeadless(headless);
+    other.setKeyStore(configuration.getKeyStore());
+    new JwtService(other).validate(token);
+  }
+}
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.transaction.annotation.Isolation;
 
 /**
  * Created by dmitry.rudenko on 5/22/2017.
@@ -40,6 +41,21 @@ public class PerryProperties {
 
   private int tokenRecordTimeout;
 
+  private TokenCacheConfiguration tokenCache = new TokenCacheConfiguration();
+
+  private TokenWriteBehindConfiguration tokenWriteBehind = new TokenWriteBehindConfiguration();
+
+  private TokenReaperConfiguration tokenReaper = new TokenReaperConfiguration();
+
+  private TokenCodecConfiguration tokenCodec = new TokenCodecConfiguration();
+
+  private CwsUserCacheConfiguration cwsUserCache = new CwsUserCacheConfiguration();
+
+  private StaffAssignmentCacheConfiguration staffAssignmentCache =
+      new StaffAssignmentCacheConfiguration();
+
+  private CmsCacheConfiguration cmsCache = new CmsCacheConfiguration();
+
   private int idpRetryTimeout;
   private int idpMaxAttempts;
   private int idpValidateInterval;
@@ -49,6 +65,8 @@ public class PerryProperties {
   private int doraWsMaxAttempts;
   private int doraWsRetryDelayMs;
 
+  private Isolation cmsReadIsolation = Isolation.DEFAULT;
+
   public static class IdentityProviderConfiguration {
 
     private IdpMappingScript idpMapping;
@@ -97,6 +115,241 @@ public class PerryProperties {
     }
   }
 
+  public static class TokenCacheConfiguration {
+
+    private boolean enabled = true;
+    private long maximumSize = 10000;
+    private long expireAfterWrite = 60;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+    }
+
+    public long getExpireAfterWrite() {
+      return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(long expireAfterWrite) {
+      this.expireAfterWrite = expireAfterWrite;
+    }
+  }
+
+  public static class TokenWriteBehindConfiguration {
+
+    private boolean enabled = true;
+    private long flushInterval = 5000;
+    private int batchSize = 500;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getFlushInterval() {
+      return flushInterval;
+    }
+
+    public void setFlushInterval(long flushInterval) {
+      this.flushInterval = flushInterval;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
+  }
+
+  public static class TokenReaperConfiguration {
+
+    private boolean enabled = true;
+    private long interval = 60000;
+    private int chunkSize = 1000;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getInterval() {
+      return interval;
+    }
+
+    public void setInterval(long interval) {
+      this.interval = interval;
+    }
+
+    public int getChunkSize() {
+      return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+  }
+
+  public static class TokenCodecConfiguration {
+
+    private boolean compactSecurityContext = true;
+    private boolean compressJsonToken = true;
+    private boolean compressSsoToken;
+    private int compressionThreshold = 512;
+
+    public boolean isCompactSecurityContext() {
+      return compactSecurityContext;
+    }
+
+    public void setCompactSecurityContext(boolean compactSecurityContext) {
+      this.compactSecurityContext = compactSecurityContext;
+    }
+
+    public boolean isCompressJsonToken() {
+      return compressJsonToken;
+    }
+
+    public void setCompressJsonToken(boolean compressJsonToken) {
+      this.compressJsonToken = compressJsonToken;
+    }
+
+    public boolean isCompressSsoToken() {
+      return compressSsoToken;
+    }
+
+    public void setCompressSsoToken(boolean compressSsoToken) {
+      this.compressSsoToken = compressSsoToken;
+    }
+
+    public int getCompressionThreshold() {
+      return compressionThreshold;
+    }
+
+    public void setCompressionThreshold(int compressionThreshold) {
+      this.compressionThreshold = compressionThreshold;
+    }
+  }
+
+  public static class CwsUserCacheConfiguration {
+
+    private boolean enabled = true;
+    private long maximumSize = 10000;
+    private long expireAfterWrite = 300;
+    private long negativeExpireAfterWrite = 60;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+    }
+
+    public long getExpireAfterWrite() {
+      return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(long expireAfterWrite) {
+      this.expireAfterWrite = expireAfterWrite;
+    }
+
+    public long getNegativeExpireAfterWrite() {
+      return negativeExpireAfterWrite;
+    }
+
+    public void setNegativeExpireAfterWrite(long negativeExpireAfterWrite) {
+      this.negativeExpireAfterWrite = negativeExpireAfterWrite;
+    }
+  }
+
+  public static class StaffAssignmentCacheConfiguration {
+
+    private boolean enabled = true;
+    private long maximumSize = 10000;
+    private long refreshInterval = 300;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+    }
+
+    public long getRefreshInterval() {
+      return refreshInterval;
+    }
+
+    public void setRefreshInterval(long refreshInterval) {
+      this.refreshInterval = refreshInterval;
+    }
+  }
+
+  public static class CmsCacheConfiguration {
+
+    private boolean enabled;
+    private int maximumSize = 1000;
+    private long expireAfterWrite = 3600;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getMaximumSize() {
+      return maximumSize;
+    }
+
+    public void setMaximumSize(int maximumSize) {
+      this.maximumSize = maximumSize;
+    }
+
+    public long getExpireAfterWrite() {
+      return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(long expireAfterWrite) {
+      this.expireAfterWrite = expireAfterWrite;
+    }
+  }
+
   public List<String> getWhiteList() {
     return whiteList;
   }
@@ -169,6 +422,63 @@ public class PerryProperties {
     this.tokenRecordTimeout = tokenRecordTimeout;
   }
 
+  public TokenCacheConfiguration getTokenCache() {
+    return tokenCache;
+  }
+
+  public void setTokenCache(TokenCacheConfiguration tokenCache) {
+    this.tokenCache = tokenCache;
+  }
+
+  public TokenWriteBehindConfiguration getTokenWriteBehind() {
+    return tokenWriteBehind;
+  }
+
+  public void setTokenWriteBehind(TokenWriteBehindConfiguration tokenWriteBehind) {
+    this.tokenWriteBehind = tokenWriteBehind;
+  }
+
+  public TokenReaperConfiguration getTokenReaper() {
+    return tokenReaper;
+  }
+
+  public void setTokenReaper(TokenReaperConfiguration tokenReaper) {
+    this.tokenReaper = tokenReaper;
+  }
+
+  public TokenCodecConfiguration getTokenCodec() {
+    return tokenCodec;
+  }
+
+  public void setTokenCodec(TokenCodecConfiguration tokenCodec) {
+    this.tokenCodec = tokenCodec;
+  }
+
+  public CwsUserCacheConfiguration getCwsUserCache() {
+    return cwsUserCache;
+  }
+
+  public void setCwsUserCache(CwsUserCacheConfiguration cwsUserCache) {
+    this.cwsUserCache = cwsUserCache;
+  }
+
+  public StaffAssignmentCacheConfiguration getStaffAssignmentCache() {
+    return staffAssignmentCache;
+  }
+
+  public void setStaffAssignmentCache(
+      StaffAssignmentCacheConfiguration staffAssignmentCache) {
+    this.staffAssignmentCache = staffAssignmentCache;
+  }
+
+  public CmsCacheConfiguration getCmsCache() {
+    return cmsCache;
+  }
+
+  public void setCmsCache(CmsCacheConfiguration cmsCache) {
+    this.cmsCache = cmsCache;
+  }
+
   public int getIdpRetryTimeout() {
     return idpRetryTimeout;
   }
@@ -216,4 +526,12 @@ public class PerryProperties {
   public void setDoraWsRetryDelayMs(int doraWsRetryDelayMs) {
     this.doraWsRetryDelayMs = doraWsRetryDelayMs;
   }
-}
\ No newline at end of file
+
+  public Isolation getCmsReadIsolation() {
+    return cmsReadIsolation;
+  }
+
+  public void setCmsReadIsolation(Isolation cmsReadIsolation) {
+    this.cmsReadIsolation = cmsReadIsolation;
+  }
+}
@@ -2,15 +2,16 @@ package gov.ca.cwds;
 
 import gov.ca.cwds.rest.api.domain.PerryException;
 import gov.ca.cwds.rest.api.domain.auth.UserAuthorization;
+import gov.ca.cwds.util.JsonCodec;
 import gov.ca.cwds.util.UniversalUserTokenDeserializer;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import org.codehaus.jackson.annotate.JsonProperty;
-import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.map.annotate.JsonDeserialize;
 
 /**
@@ -88,9 +89,25 @@ public class UniversalUserToken implements RolesHolder, Serializable {
     this.permissions = permissions;
   }
 
+  /**
+   * @return copy of the user token, its roles, permissions and parameters can be changed without
+   * affecting the original, set parameters are copied as well; authorization is shared
+   */
+  public static UniversalUserToken copyOf(UniversalUserToken userToken) {
+    UniversalUserToken copy = new UniversalUserToken();
+    copy.setUserId(userToken.getUserId());
+    copy.setToken(userToken.getToken());
+    copy.setAuthorization(userToken.getAuthorization());
+    copy.getRoles().addAll(userToken.getRoles());
+    copy.getPermissions().addAll(userToken.getPermissions());
+    userToken.getParameters().forEach((name, value) -> copy.setParameter(name,
+        value instanceof Set ? new HashSet<>((Set<?>) value) : value));
+    return copy;
+  }
+
   public static UniversalUserToken fromJson(String json)  {
     try {
-      return new ObjectMapper().readValue(json, UniversalUserToken.class);
+      return JsonCodec.readUserToken(json);
     } catch (IOException e) {
       throw new PerryException(e.getMessage(), e);
     }
@@ -1,9 +1,13 @@
 package gov.ca.cwds.config;
 
+import gov.ca.cwds.PerryProperties;
 import gov.ca.cwds.data.auth.UserIdDao;
 import gov.ca.cwds.data.persistence.auth.AssignmentUnit;
 import gov.ca.cwds.idm.persistence.cwscms.repository.OfficeRepository;
+import java.util.HashMap;
+import java.util.Map;
 import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
@@ -26,6 +30,10 @@ import org.springframework.transaction.PlatformTransactionManager;
 @EntityScan(basePackageClasses = AssignmentUnit.class)
 public class CMSConfiguration {
 
+  public static final String CMS_READ_ONLY_TRANSACTION_MANAGER = "cmsReadOnlyTransactionManager";
+
+  private PerryProperties perryProperties;
+
   @Bean
   @Primary
   @ConfigurationProperties("spring.datasource")
@@ -60,7 +68,15 @@ public class CMSConfiguration {
   public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
     LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
     em.setDataSource(dataSource);
-    em.setJpaPropertyMap(jpaProperties().getHibernateProperties(dataSource));
+    Map<String, Object> properties =
+        new HashMap<>(jpaProperties().getHibernateProperties(dataSource));
+    boolean cacheEnabled = perryProperties.getCmsCache().isEnabled();
+    properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, cacheEnabled);
+    properties.put(AvailableSettings.USE_QUERY_CACHE, cacheEnabled);
+    if (cacheEnabled) {
+      properties.put(AvailableSettings.CACHE_REGION_FACTORY, cmsCacheRegionFactory());
+    }
+    em.setJpaPropertyMap(properties);
     em.setPackagesToScan("gov.ca.cwds.data.persistence.auth", "gov.ca.cwds.data.auth",
         "gov.ca.cwds.idm.persistence.cwscms.entity");
     em.setPersistenceUnitName("default");
@@ -78,4 +94,32 @@ public class CMSConfiguration {
         entityManagerFactory(dataSource).getObject());
     return transactionManager;
   }
+
+  @Bean(name = CMS_READ_ONLY_TRANSACTION_MANAGER)
+  @Autowired
+  public PlatformTransactionManager cmsReadOnlyTransactionManager(DataSource dataSource) {
+    return new ReadOnlyJpaTransactionManager(entityManagerFactory(dataSource).getObject(),
+        perryProperties.getCmsReadIsolation());
+  }
+
+  /**
+   * Used as second-level cache of the reference tables when {@code perry.cmsCache.enabled} is
+   * set, otherwise Hibernate caches nothing and the regions stay empty.
+   */
+  @Bean
+  public CmsCacheRegionFactory cmsCacheRegionFactory() {
+    return new CmsCacheRegionFactory(perryProperties.getCmsCache());
+  }
+
+  @Bean
+  @Autowired
+  public CmsCacheEndpoint cmsCacheEndpoint(DataSource dataSource) {
+    return new CmsCacheEndpoint(entityManagerFactory(dataSource).getObject(),
+        cmsCacheRegionFactory());
+  }
+
+  @Autowired
+  public void setPerryProperties(PerryProperties perryProperties) {
+    this.perryProperties = perryProperties;
+  }
 }
@@ -0,0 +1,43 @@
+package gov.ca.cwds.config;
+
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.actuate.endpoint.mvc.AbstractNamedMvcEndpoint;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Management endpoint of the CWS/CMS second-level cache.
+ *
+ * <p>{@code GET /manage/cms-cache} shows the cache regions, {@code POST /manage/cms-cache/flush}
+ * evicts all of them, e.g. after reference tables were changed in CWS/CMS.</p>
+ */
+public class CmsCacheEndpoint extends AbstractNamedMvcEndpoint {
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final CmsCacheRegionFactory regionFactory;
+
+  public CmsCacheEndpoint(EntityManagerFactory entityManagerFactory,
+      CmsCacheRegionFactory regionFactory) {
+    super("cmsCache", "/cms-cache", true, true);
+    this.entityManagerFactory = entityManagerFactory;
+    this.regionFactory = regionFactory;
+  }
+
+  @RequestMapping(method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseBody
+  public Map<String, Map<String, Long>> regions() {
+    return regionFactory.getRegionStatistics();
+  }
+
+  @RequestMapping(value = "/flush", method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @ResponseBody
+  public Map<String, Map<String, Long>> flush() {
+    entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    return regionFactory.getRegionStatistics();
+  }
+}
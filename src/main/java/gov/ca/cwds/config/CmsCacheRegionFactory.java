@@ -0,0 +1,138 @@
+package gov.ca.cwds.config;
+
+import gov.ca.cwds.PerryProperties.CmsCacheConfiguration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Statistics;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.ehcache.EhCacheRegionFactory;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.EntityRegion;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Second-level cache of CWS/CMS reference tables. Every region holds up to
+ * {@code perry.cmsCache.maximumSize} entries for {@code perry.cmsCache.expireAfterWrite} seconds,
+ * no ehcache.xml is needed.
+ */
+public class CmsCacheRegionFactory extends EhCacheRegionFactory implements PublicMetrics {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final String METRIC_PREFIX = "perry.cmsCache.";
+
+  /**
+   * Ehcache doesn't allow two cache managers of the same name in a JVM, e.g. in two application
+   * contexts of a test run.
+   */
+  private static final AtomicInteger MANAGER_SEQUENCE = new AtomicInteger();
+
+  private final transient CmsCacheConfiguration configuration;
+
+  public CmsCacheRegionFactory(CmsCacheConfiguration configuration) {
+    this.configuration = configuration;
+  }
+
+  @Override
+  public void start(SessionFactoryOptions settings, Properties properties) {
+    this.settings = settings;
+    if (manager != null) {
+      return;
+    }
+    CacheConfiguration defaultCache = new CacheConfiguration()
+        .maxElementsInMemory(configuration.getMaximumSize())
+        .timeToLiveSeconds(configuration.getExpireAfterWrite())
+        .eternal(false)
+        .overflowToDisk(false)
+        .statistics(true);
+    manager = new CacheManager(new Configuration()
+        .name("perry-cms-" + MANAGER_SEQUENCE.incrementAndGet())
+        .updateCheck(false)
+        .defaultCache(defaultCache));
+  }
+
+  @Override
+  public void stop() {
+    if (manager != null) {
+      manager.shutdown();
+      manager = null;
+    }
+  }
+
+  @Override
+  public EntityRegion buildEntityRegion(String regionName, Properties properties,
+      CacheDataDescription metadata) {
+    addRegion(regionName);
+    return super.buildEntityRegion(regionName, properties, metadata);
+  }
+
+  @Override
+  public QueryResultsRegion buildQueryResultsRegion(String regionName, Properties properties) {
+    addRegion(regionName);
+    return super.buildQueryResultsRegion(regionName, properties);
+  }
+
+  @Override
+  public TimestampsRegion buildTimestampsRegion(String regionName, Properties properties) {
+    addRegion(regionName);
+    return super.buildTimestampsRegion(regionName, properties);
+  }
+
+  /**
+   * @return entries, hits and misses by region, empty if the cache is not used
+   */
+  public Map<String, Map<String, Long>> getRegionStatistics() {
+    CacheManager cacheManager = manager;
+    if (cacheManager == null) {
+      return Collections.emptyMap();
+    }
+    Map<String, Map<String, Long>> regions = new LinkedHashMap<>();
+    for (String regionName : cacheManager.getCacheNames()) {
+      Ehcache cache = cacheManager.getEhcache(regionName);
+      Statistics statistics = cache.getStatistics();
+      Map<String, Long> region = new LinkedHashMap<>();
+      region.put("size", (long) cache.getSize());
+      region.put("hits", statistics.getCacheHits());
+      region.put("misses", statistics.getCacheMisses());
+      region.put("evictions", statistics.getEvictionCount());
+      regions.put(regionName, region);
+    }
+    return regions;
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    List<Metric<?>> metrics = new ArrayList<>();
+    getRegionStatistics().forEach((regionName, region) -> {
+      String prefix = METRIC_PREFIX + regionName.substring(regionName.lastIndexOf('.') + 1) + ".";
+      region.forEach((name, value) -> metrics.add(new Metric<>(prefix + name, value)));
+    });
+    return metrics;
+  }
+
+  /**
+   * Regions are created with the default settings up front, so ehcache does not warn about
+   * regions missing in its configuration.
+   */
+  private void addRegion(String regionName) {
+    try {
+      manager.addCacheIfAbsent(regionName);
+    } catch (net.sf.ehcache.CacheException e) {
+      throw new CacheException(e);
+    }
+  }
+}
@@ -10,6 +10,7 @@ public interface Constants {
   String LOGIN_SERVICE_URL = "/authn/login";
   String VALIDATE_SERVICE_URL = "/authn/validate";
   String TOKEN_SERVICE_URL = "/authn/token";
+  String JWKS_SERVICE_URL = "/authn/jwks";
   String CALLBACK_PARAM = "callback";
   String IDENTITY = "identity";
   String IDENTITY_JSON = "identity_json";
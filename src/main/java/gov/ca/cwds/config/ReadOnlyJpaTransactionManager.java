@@ -0,0 +1,38 @@
+package gov.ca.cwds.config;
+
+import javax.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * Transaction manager of CWS/CMS lookups. Transactions are always read-only, so the session is
+ * never flushed and the JDBC connection is marked read-only.
+ *
+ * <p>Transactions not declaring an isolation level run with the configured one, e.g.
+ * {@link Isolation#READ_UNCOMMITTED} which is {@code WITH UR} on DB2. Transactions joining an
+ * already started one keep its settings.</p>
+ */
+public class ReadOnlyJpaTransactionManager extends JpaTransactionManager {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Isolation isolation;
+
+  public ReadOnlyJpaTransactionManager(EntityManagerFactory entityManagerFactory,
+      Isolation isolation) {
+    super(entityManagerFactory);
+    this.isolation = isolation;
+  }
+
+  @Override
+  protected void doBegin(Object transaction, TransactionDefinition definition) {
+    DefaultTransactionDefinition readOnlyDefinition = new DefaultTransactionDefinition(definition);
+    readOnlyDefinition.setReadOnly(true);
+    if (definition.getIsolationLevel() == TransactionDefinition.ISOLATION_DEFAULT) {
+      readOnlyDefinition.setIsolationLevel(isolation.value());
+    }
+    super.doBegin(transaction, readOnlyDefinition);
+  }
+}
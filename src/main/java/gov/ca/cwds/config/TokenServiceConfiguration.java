@@ -69,6 +69,14 @@ public class TokenServiceConfiguration {
     return getSpringLiquibase(tokenDataSource());
   }
 
+  @Bean
+  @DependsOn("perryLiquibaseStructure")
+  @Profile("liquibase")
+  @ConfigurationProperties("perry.liquibase.tokenStore")
+  public SpringLiquibase perryLiquibaseTokenStore() {
+    return getSpringLiquibase(tokenDataSource());
+  }
+
   private SpringLiquibase getSpringLiquibase(DataSource dataSource) {
     SpringLiquibase springLiquibase = new SpringLiquibase();
     springLiquibase.setDataSource(dataSource);
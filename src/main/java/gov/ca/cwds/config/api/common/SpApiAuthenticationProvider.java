@@ -1,13 +1,10 @@
 package gov.ca.cwds.config.api.common;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import gov.ca.cwds.UniversalUserToken;
-import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
 import gov.ca.cwds.service.LoginService;
-import gov.ca.cwds.service.TokenService;
-import org.apache.commons.lang3.SerializationUtils;
+import gov.ca.cwds.service.token.ValidatedPerryToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -20,25 +17,22 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class SpApiAuthenticationProvider implements AuthenticationProvider {
-  @Autowired
-  private TokenService tokenService;
-  @Autowired
   private LoginService loginService;
 
   @Override
   public Authentication authenticate(Authentication authentication) throws AuthenticationException {
     try {
       String perryToken = (String) authentication.getPrincipal();
-      UniversalUserToken universalUserToken = loginService.validate(perryToken);
-      PerryTokenEntity perryTokenEntity = tokenService.getPerryToken(perryToken);
+      ValidatedPerryToken validatedToken = loginService.validateToken(perryToken);
+      UniversalUserToken universalUserToken = validatedToken.getUniversalUserToken();
       List<GrantedAuthority> roles = universalUserToken.getRoles().stream()
           .map(SimpleGrantedAuthority::new).collect(Collectors.toList());
       roles.add(new SimpleGrantedAuthority("SP_API_CLIENT"));
       PreAuthenticatedAuthenticationToken authenticationToken = new PreAuthenticatedAuthenticationToken(
           universalUserToken,
-          SerializationUtils.deserialize(perryTokenEntity.getSecurityContext()),
+          validatedToken.getSecurityContext(),
           roles);
-      authenticationToken.setDetails(perryTokenEntity);
+      authenticationToken.setDetails(validatedToken.getPerryTokenEntity());
       return authenticationToken;
     } catch (Exception e) {
       throw new BadCredentialsException("invalid token", e);
@@ -49,4 +43,9 @@ public class SpApiAuthenticationProvider implements AuthenticationProvider {
   public boolean supports(Class<?> authentication) {
     return authentication.isAssignableFrom(PreAuthenticatedAuthenticationToken.class);
   }
+
+  @Autowired
+  public void setLoginService(LoginService loginService) {
+    this.loginService = loginService;
+  }
 }
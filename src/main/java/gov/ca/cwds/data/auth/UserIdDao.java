@@ -1,28 +1,44 @@
 package gov.ca.cwds.data.auth;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import gov.ca.cwds.data.persistence.auth.StaffPerson;
 import gov.ca.cwds.data.persistence.auth.UserId;
+import gov.ca.cwds.service.dto.CwsUserProjection;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * DAO for {@link UserId}.
  *
+ * <p>CWS/CMS is read-only for Perry, so entities are loaded read-only: Hibernate keeps no
+ * snapshots of them and skips dirty checking.</p>
+ *
  * @author CWDS API Team
  */
 
 @Repository
 public interface UserIdDao extends ReadOnlyRepository<UserId, String> {
 
-  @Query("SELECT U FROM UserId U "
-      + "LEFT OUTER JOIN FETCH U.staffPerson sp "
-      + "LEFT OUTER JOIN FETCH sp.office "
-      + "WHERE U.logonId in :logonIds "
-      + "AND U.endDate is null")
-  Set<UserId> findActiveByLogonIdIn(@Param("logonIds") Collection<String> logonIds);
+  @Query("SELECT new gov.ca.cwds.service.dto.CwsUserProjection(u.logonId, sp.id, sp.firstName,"
+      + " sp.lastName, sp.startDate, sp.endDate, sp.phoneNumber, sp.phoneExtensionNumber,"
+      + " sp.countyCode, o.officeId, o.cwsOfficeName, o.governmentEntityType,"
+      + " o.primaryPhoneNumber, o.primaryPhoneExtensionNumber, o.countySpecificCode) "
+      + "FROM UserId u "
+      + "LEFT OUTER JOIN u.staffPerson sp "
+      + "LEFT OUTER JOIN sp.office o "
+      + "WHERE u.logonId in :logonIds "
+      + "AND u.endDate IS NULL")
+  List<CwsUserProjection> findActiveProjectionsByLogonIdIn(
+      @Param("logonIds") Collection<String> logonIds);
 
+  @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
   @Query("SELECT u FROM UserId u "
       + "LEFT OUTER JOIN FETCH u.staffPerson sp "
       + "LEFT OUTER JOIN FETCH sp.unitAuthorities ua "
@@ -33,12 +49,68 @@ public interface UserIdDao extends ReadOnlyRepository<UserId, String> {
       + "AND u.endDate IS NULL ")
   Set<UserId> findActiveByLogonId(@Param("logonId") String logonId);
 
+  /**
+   * Unit authorities are not fetched here, joining both collections would multiply the rows by
+   * privileges times unit authorities. See {@link #findStaffPersonsWithUnitAuthorities}.
+   *
+   * <p>Returns a list, hashing the users into a set would initialize the unit authorities one
+   * staff person at a time.</p>
+   */
+  @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+  @Query("SELECT DISTINCT u FROM UserId u "
+      + "LEFT OUTER JOIN FETCH u.staffPerson sp "
+      + "LEFT OUTER JOIN FETCH sp.office "
+      + "LEFT OUTER JOIN FETCH u.privileges p "
+      + "WHERE u.logonId in :logonIds "
+      + "AND u.endDate IS NULL ")
+  List<UserId> findActiveWithPrivilegesByLogonIdIn(@Param("logonIds") Collection<String> logonIds);
+
+  @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+  @Query("SELECT DISTINCT sp FROM StaffPerson sp "
+      + "LEFT OUTER JOIN FETCH sp.unitAuthorities ua "
+      + "LEFT OUTER JOIN FETCH ua.assignmentUnit "
+      + "WHERE sp.id in :staffPersonIds")
+  List<StaffPerson> findStaffPersonsWithUnitAuthorities(
+      @Param("staffPersonIds") Collection<String> staffPersonIds);
+
+  /**
+   * Finds at most one open assignment of a staff person, so the query stops at the first match
+   * instead of counting the whole caseload.
+   */
+  @Query(
+      value = "SELECT 1"
+          + " FROM {h-schema}ASGNM_T as asg"
+          + " JOIN {h-schema}CASE_LDT as csl ON asg.FKCASE_LDT = csl.IDENTIFIER"
+          + " JOIN {h-schema}STFCSLDT as spcl ON csl.IDENTIFIER = spcl.FKCASE_LDT"
+          + " LEFT OUTER JOIN {h-schema}REFERL_T as r"
+          + "   ON"
+          + "     asg.ESTBLSH_ID = r.IDENTIFIER"
+          + "     AND asg.ESTBLSH_CD = 'R'"
+          + " LEFT OUTER JOIN {h-schema}CASE_T as c "
+          + "   ON"
+          + "     asg.ESTBLSH_ID = c.IDENTIFIER "
+          + "     AND asg.ESTBLSH_CD = 'C' "
+          + " WHERE"
+          + "    asg.END_DT IS NULL"
+          + "    AND csl.END_DT IS NULL"
+          + "    AND r.REFCLSR_DT IS NULL"
+          + "    AND c.END_DT IS NULL"
+          + "    AND spcl.FKSTFPERST = :staffPersonId"
+          + " FETCH FIRST 1 ROWS ONLY",
+      nativeQuery = true
+  )
+  List<Integer> findAnyAssignment(@Param("staffPersonId") String staffPersonId);
+
+  /**
+   * Same conditions as {@link #findAnyAssignment} for a batch of staff persons.
+   *
+   * @return identifiers of the given staff persons having open assignments
+   */
   @Query(
-      value = "SELECT count (asg.ESTBLSH_ID) as assignments"
+      value = "SELECT DISTINCT spcl.FKSTFPERST"
           + " FROM {h-schema}ASGNM_T as asg"
           + " JOIN {h-schema}CASE_LDT as csl ON asg.FKCASE_LDT = csl.IDENTIFIER"
           + " JOIN {h-schema}STFCSLDT as spcl ON csl.IDENTIFIER = spcl.FKCASE_LDT"
-          + " JOIN {h-schema}STFPERST as sp ON spcl.FKSTFPERST = sp.IDENTIFIER"
           + " LEFT OUTER JOIN {h-schema}REFERL_T as r"
           + "   ON"
           + "     asg.ESTBLSH_ID = r.IDENTIFIER"
@@ -50,11 +122,12 @@ public interface UserIdDao extends ReadOnlyRepository<UserId, String> {
           + " WHERE"
           + "    asg.END_DT IS NULL"
           + "    AND csl.END_DT IS NULL"
-          + "    AND REFCLSR_DT IS NULL"
+          + "    AND r.REFCLSR_DT IS NULL"
           + "    AND c.END_DT IS NULL"
-          + "    AND sp.IDENTIFIER = :staffPersonId",
+          + "    AND spcl.FKSTFPERST in (:staffPersonIds)",
       nativeQuery = true
   )
-  int assignmentsCount(@Param("staffPersonId") String staffPersonId);
+  List<String> findStaffPersonsWithAssignments(
+      @Param("staffPersonIds") Collection<String> staffPersonIds);
 
 }
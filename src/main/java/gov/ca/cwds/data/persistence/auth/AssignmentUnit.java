@@ -3,6 +3,7 @@ package gov.ca.cwds.data.persistence.auth;
 import gov.ca.cwds.data.persistence.CmsPersistentObject;
 import java.io.Serializable;
 import java.time.LocalDate;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
@@ -10,6 +11,9 @@ import javax.persistence.Table;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 import org.hibernate.annotations.Type;
 
 /**
@@ -19,6 +23,9 @@ import org.hibernate.annotations.Type;
  */
 @Entity
 @Table(name = "ASG_UNIT")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
+@Immutable
 public class AssignmentUnit extends CmsPersistentObject {
 
   /** Base serialization version. Increment per version of this class. */
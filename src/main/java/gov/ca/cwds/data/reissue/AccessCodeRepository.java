@@ -0,0 +1,23 @@
+package gov.ca.cwds.data.reissue;
+
+import gov.ca.cwds.data.reissue.model.PerryAccessCodeEntity;
+import java.util.Date;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccessCodeRepository extends JpaRepository<PerryAccessCodeEntity, String> {
+
+  /**
+   * @return 1 if the access code was consumed by this call, 0 if it is already consumed
+   */
+  @Modifying
+  @Query("delete from PerryAccessCodeEntity a where a.accessCode = ?1")
+  int consume(String accessCode);
+
+  @Modifying
+  @Query("delete from PerryAccessCodeEntity a where a.createdDate < ?1")
+  int deleteByCreatedDateBefore(Date createdDate);
+}
@@ -0,0 +1,122 @@
+package gov.ca.cwds.data.reissue;
+
+import com.google.common.collect.Lists;
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.data.reissue.model.PerryAccessCodeEntity;
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.time.DateUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Token store backed by the perry_token table.
+ */
+@Component
+@Profile("!redis-token-store")
+@Transactional(value = "tokenTransactionManager")
+public class JpaTokenStore implements TokenStore {
+
+  private PerryProperties properties;
+  private TokenRepository tokenRepository;
+  private AccessCodeRepository accessCodeRepository;
+  private PerryTokenJdbcRepository tokenJdbcRepository;
+
+  @Override
+  public void save(PerryTokenEntity perryTokenEntity) {
+    tokenRepository.save(perryTokenEntity);
+  }
+
+  @Override
+  @Transactional(value = "tokenTransactionManager", readOnly = true)
+  public PerryTokenEntity findByToken(String token) {
+    return tokenRepository.findOne(token);
+  }
+
+  @Override
+  public void delete(String token) {
+    tokenRepository.delete(token);
+  }
+
+  @Override
+  public void delete(PerryTokenEntity perryTokenEntity) {
+    tokenRepository.delete(perryTokenEntity);
+  }
+
+  @Override
+  public void updateLastUsedDates(Map<String, Date> lastUsedDates) {
+    batchUpdate(tokenJdbcRepository::updateLastUsedDates, lastUsedDates);
+  }
+
+  @Override
+  public void updateLastIdpValidateTimes(Map<String, Date> lastIdpValidateTimes) {
+    batchUpdate(tokenJdbcRepository::updateLastIdpValidateTimes, lastIdpValidateTimes);
+  }
+
+  @Override
+  public int deleteExpired(Date lastUsedDate, int limit) {
+    return tokenJdbcRepository.deleteExpired(new Timestamp(lastUsedDate.getTime()), limit);
+  }
+
+  @Override
+  public void saveAccessCode(String accessCode, String token) {
+    accessCodeRepository.save(new PerryAccessCodeEntity(accessCode, token));
+  }
+
+  @Override
+  public String redeemAccessCode(String accessCode) {
+    PerryAccessCodeEntity accessCodeEntity = accessCodeRepository.findOne(accessCode);
+    if (accessCodeEntity == null || accessCodeRepository.consume(accessCode) == 0
+        || accessCodeEntity.getCreatedDate().before(accessCodeValidSince())) {
+      return null;
+    }
+    return accessCodeEntity.getToken();
+  }
+
+  @Override
+  public int deleteExpiredAccessCodes() {
+    return accessCodeRepository.deleteByCreatedDateBefore(accessCodeValidSince());
+  }
+
+  private Date accessCodeValidSince() {
+    return DateUtils.addMinutes(new Date(), -properties.getJwt().getTimeout());
+  }
+
+  private void batchUpdate(Consumer<List<Object[]>> update, Map<String, Date> dates) {
+    List<Object[]> batchArgs = dates.entrySet().stream().map(entry -> {
+      Timestamp timestamp = new Timestamp(entry.getValue().getTime());
+      return new Object[]{timestamp, entry.getKey(), timestamp};
+    }).collect(Collectors.toList());
+    for (List<Object[]> batch : Lists
+        .partition(batchArgs, properties.getTokenWriteBehind().getBatchSize())) {
+      update.accept(batch);
+    }
+  }
+
+  @Autowired
+  public void setProperties(PerryProperties properties) {
+    this.properties = properties;
+  }
+
+  @Autowired
+  public void setTokenRepository(TokenRepository tokenRepository) {
+    this.tokenRepository = tokenRepository;
+  }
+
+  @Autowired
+  public void setAccessCodeRepository(AccessCodeRepository accessCodeRepository) {
+    this.accessCodeRepository = accessCodeRepository;
+  }
+
+  @Autowired
+  public void setTokenJdbcRepository(PerryTokenJdbcRepository tokenJdbcRepository) {
+    this.tokenJdbcRepository = tokenJdbcRepository;
+  }
+}
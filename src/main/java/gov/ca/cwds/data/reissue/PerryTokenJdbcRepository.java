@@ -0,0 +1,96 @@
+package gov.ca.cwds.data.reissue;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Plain JDBC access to the perry_token table for bulk maintenance statements which should not go
+ * through the persistence context.
+ */
+@Repository
+public class PerryTokenJdbcRepository {
+
+  private static final String TABLE_NAME = "perry_token";
+
+  private JdbcTemplate jdbcTemplate;
+  private String schema;
+
+  private String updateLastUsedDateSql;
+  private String updateLastIdpValidateTimeSql;
+  private String selectExpiredSql;
+  private String deleteExpiredSql;
+
+  @PostConstruct
+  public void init() {
+    String tableName = StringUtils.isBlank(schema) ? TABLE_NAME : schema + "." + TABLE_NAME;
+    updateLastUsedDateSql = "UPDATE " + tableName + " SET last_used_date = ?"
+        + " WHERE token = ? AND (last_used_date IS NULL OR last_used_date < ?)";
+    updateLastIdpValidateTimeSql = "UPDATE " + tableName + " SET last_idp_validate_time = ?"
+        + " WHERE token = ? AND (last_idp_validate_time IS NULL OR last_idp_validate_time < ?)";
+    String expired = "(last_used_date < ? OR last_used_date IS NULL)";
+    selectExpiredSql = "SELECT token FROM " + tableName + " WHERE " + expired;
+    deleteExpiredSql = "DELETE FROM " + tableName + " WHERE token = ? AND " + expired;
+  }
+
+  /**
+   * @param batchArgs {date, token, date} rows
+   */
+  public void updateLastUsedDates(List<Object[]> batchArgs) {
+    jdbcTemplate.batchUpdate(updateLastUsedDateSql, batchArgs);
+  }
+
+  /**
+   * @param batchArgs {date, token, date} rows
+   */
+  public void updateLastIdpValidateTimes(List<Object[]> batchArgs) {
+    jdbcTemplate.batchUpdate(updateLastIdpValidateTimeSql, batchArgs);
+  }
+
+  /**
+   * Deletes at most {@code limit} records which were not used since {@code lastUsedDate}. Keys are
+   * selected first with the JDBC row limit and deleted by primary key in a batch, so no dialect
+   * specific limit clause is needed. Records used in between are not deleted.
+   *
+   * @return number of deleted records
+   */
+  public int deleteExpired(Timestamp lastUsedDate, int limit) {
+    List<String> tokens = jdbcTemplate.query(connection -> {
+      PreparedStatement statement = connection.prepareStatement(selectExpiredSql);
+      statement.setMaxRows(limit);
+      statement.setTimestamp(1, lastUsedDate);
+      return statement;
+    }, (resultSet, rowNum) -> resultSet.getString(1));
+    if (tokens.isEmpty()) {
+      return 0;
+    }
+    List<Object[]> batchArgs = new ArrayList<>(tokens.size());
+    tokens.forEach(token -> batchArgs.add(new Object[]{token, lastUsedDate}));
+    int deleted = 0;
+    for (int count : jdbcTemplate.batchUpdate(deleteExpiredSql, batchArgs)) {
+      // drivers may report success without a row count
+      deleted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+    }
+    return deleted;
+  }
+
+  @Autowired
+  public void setTokenDataSource(@Qualifier("tokenDataSource") DataSource tokenDataSource) {
+    this.jdbcTemplate = new JdbcTemplate(tokenDataSource);
+  }
+
+  @Value("${perry.tokenStore.jpa.properties.hibernate.default_schema:}")
+  public void setSchema(String schema) {
+    this.schema = schema;
+  }
+}
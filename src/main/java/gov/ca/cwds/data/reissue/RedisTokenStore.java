@@ -0,0 +1,214 @@
+package gov.ca.cwds.data.reissue;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.SerializationUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token store backed by redis, requires {@code redis} profile for the connection factory.
+ *
+ * <p>Every token is kept in a hash holding the serialized record along with its last used date
+ * and last IdP validate time, so touches don't rewrite the whole record. Keys expire natively
+ * after {@code perry.tokenRecordTimeout} minutes of inactivity. Access codes are separate keys
+ * pointing to the token, expire after {@code perry.jwt.timeout} minutes and are consumed with a
+ * single script call.</p>
+ */
+@Component
+@Profile("redis-token-store")
+public class RedisTokenStore implements TokenStore {
+
+  private static final String TOKEN_KEY_PREFIX = "perry:token:";
+  private static final String ACCESS_CODE_KEY_PREFIX = "perry:access_code:";
+
+  private static final byte[] ENTITY = bytes("entity");
+  private static final byte[] LAST_USED_DATE = bytes("lastUsedDate");
+  private static final byte[] LAST_IDP_VALIDATE_TIME = bytes("lastIdpValidateTime");
+
+  /**
+   * Returns and deletes the token an access code points to.
+   */
+  private static final byte[] REDEEM_ACCESS_CODE_SCRIPT = bytes(
+      "local token = redis.call('GET', KEYS[1]) "
+          + "if token then redis.call('DEL', KEYS[1]) end "
+          + "return token");
+
+  /**
+   * Moves a date field of an existing token forward and optionally prolongs the token.
+   */
+  private static final byte[] UPDATE_DATE_SCRIPT = bytes(
+      "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+          + "local current = tonumber(redis.call('HGET', KEYS[1], ARGV[1])) "
+          + "if current == nil or current < tonumber(ARGV[2]) then "
+          + "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) end "
+          + "if ARGV[3] ~= '0' then redis.call('EXPIRE', KEYS[1], ARGV[3]) end "
+          + "return 1");
+
+  private PerryProperties properties;
+  private RedisTemplate<String, Object> redisTemplate;
+
+  @Override
+  public void save(PerryTokenEntity perryTokenEntity) {
+    byte[] tokenKey = tokenKey(perryTokenEntity.getToken());
+    Map<byte[], byte[]> hash = new HashMap<>();
+    hash.put(ENTITY, SerializationUtils.serialize(perryTokenEntity));
+    putDate(hash, LAST_USED_DATE, perryTokenEntity.getLastUsedDate());
+    putDate(hash, LAST_IDP_VALIDATE_TIME, perryTokenEntity.getLastIdpValidateTime());
+    execute(connection -> {
+      connection.multi();
+      connection.hMSet(tokenKey, hash);
+      connection.expire(tokenKey, tokenRecordTimeout());
+      connection.exec();
+      return null;
+    });
+  }
+
+  @Override
+  public PerryTokenEntity findByToken(String token) {
+    Map<byte[], byte[]> hash = execute(connection -> connection.hGetAll(tokenKey(token)));
+    byte[] entity = get(hash, ENTITY);
+    if (entity == null) {
+      return null;
+    }
+    PerryTokenEntity perryTokenEntity = SerializationUtils.deserialize(entity);
+    perryTokenEntity.setLastUsedDate(getDate(hash, LAST_USED_DATE));
+    perryTokenEntity.setLastIdpValidateTime(getDate(hash, LAST_IDP_VALIDATE_TIME));
+    return perryTokenEntity;
+  }
+
+  @Override
+  public void delete(String token) {
+    execute(connection -> connection.del(tokenKey(token)));
+  }
+
+  @Override
+  public void delete(PerryTokenEntity perryTokenEntity) {
+    delete(perryTokenEntity.getToken());
+  }
+
+  @Override
+  public void updateLastUsedDates(Map<String, Date> lastUsedDates) {
+    updateDates(LAST_USED_DATE, lastUsedDates, tokenRecordTimeout());
+  }
+
+  @Override
+  public void updateLastIdpValidateTimes(Map<String, Date> lastIdpValidateTimes) {
+    updateDates(LAST_IDP_VALIDATE_TIME, lastIdpValidateTimes, 0);
+  }
+
+  /**
+   * Expired records are removed by redis itself.
+   */
+  @Override
+  public int deleteExpired(Date lastUsedDate, int limit) {
+    return 0;
+  }
+
+  @Override
+  public void saveAccessCode(String accessCode, String token) {
+    execute(connection -> {
+      connection.setEx(accessCodeKey(accessCode),
+          TimeUnit.MINUTES.toSeconds(properties.getJwt().getTimeout()), bytes(token));
+      return null;
+    });
+  }
+
+  @Override
+  public String redeemAccessCode(String accessCode) {
+    byte[] token = execute(connection -> connection
+        .eval(REDEEM_ACCESS_CODE_SCRIPT, ReturnType.VALUE, 1, accessCodeKey(accessCode)));
+    return token == null ? null : new String(token, UTF_8);
+  }
+
+  /**
+   * Access codes expire natively.
+   */
+  @Override
+  public int deleteExpiredAccessCodes() {
+    return 0;
+  }
+
+  private void updateDates(byte[] field, Map<String, Date> dates, long expire) {
+    if (dates.isEmpty()) {
+      return;
+    }
+    byte[] expireArg = bytes(Long.toString(expire));
+    redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      dates.forEach((token, date) -> connection.eval(UPDATE_DATE_SCRIPT, ReturnType.INTEGER, 1,
+          tokenKey(token), field, bytes(Long.toString(date.getTime())), expireArg));
+      return null;
+    });
+  }
+
+  private <T> T execute(RedisCallback<T> callback) {
+    return redisTemplate.execute(callback);
+  }
+
+  private long tokenRecordTimeout() {
+    return TimeUnit.MINUTES.toSeconds(properties.getTokenRecordTimeout());
+  }
+
+  private static void putDate(Map<byte[], byte[]> hash, byte[] field, Date date) {
+    if (date != null) {
+      hash.put(field, bytes(Long.toString(date.getTime())));
+    }
+  }
+
+  private static Date getDate(Map<byte[], byte[]> hash, byte[] field) {
+    byte[] time = get(hash, field);
+    return time == null ? null : new Date(Long.parseLong(new String(time, UTF_8)));
+  }
+
+  /**
+   * Byte array keys of the hash returned by the connection have no value equality.
+   */
+  private static byte[] get(Map<byte[], byte[]> hash, byte[] field) {
+    if (hash == null) {
+      return null;
+    }
+    for (Map.Entry<byte[], byte[]> entry : hash.entrySet()) {
+      if (Arrays.equals(entry.getKey(), field)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  private static byte[] tokenKey(String token) {
+    return bytes(TOKEN_KEY_PREFIX + token);
+  }
+
+  private static byte[] accessCodeKey(String accessCode) {
+    return bytes(ACCESS_CODE_KEY_PREFIX + accessCode);
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(UTF_8);
+  }
+
+  @Autowired
+  public void setProperties(PerryProperties properties) {
+    this.properties = properties;
+  }
+
+  @Autowired
+  public void setConnectionFactory(RedisConnectionFactory connectionFactory) {
+    RedisTemplate<String, Object> template = new RedisTemplate<>();
+    template.setConnectionFactory(connectionFactory);
+    template.afterPropertiesSet();
+    this.redisTemplate = template;
+  }
+}
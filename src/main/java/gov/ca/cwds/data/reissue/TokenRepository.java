@@ -3,12 +3,9 @@ package gov.ca.cwds.data.reissue;
 import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.io.Serializable;
 import java.sql.Timestamp;
-import java.util.List;
 
 
 /**
@@ -16,12 +13,7 @@ import java.util.List;
  */
 @Repository
 public interface TokenRepository extends JpaRepository<PerryTokenEntity, String> {
-  List<PerryTokenEntity> findByAccessCode(String accessCode);
-
   @Modifying
   long deleteByCreatedDateBefore(Timestamp date);
 
-  @Modifying
-  long deleteByLastUsedDateBeforeOrLastUsedDateIsNull(Timestamp date);
-
 }
@@ -0,0 +1,61 @@
+package gov.ca.cwds.data.reissue;
+
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Storage of perry token records.
+ *
+ * <p>The relational store is used by default, {@code redis-token-store} profile switches to the
+ * redis one.</p>
+ */
+public interface TokenStore {
+
+  void save(PerryTokenEntity perryTokenEntity);
+
+  /**
+   * @return token record or {@code null} if there is no such token
+   */
+  PerryTokenEntity findByToken(String token);
+
+  void delete(String token);
+
+  void delete(PerryTokenEntity perryTokenEntity);
+
+  /**
+   * @param lastUsedDates last used date by token, stored dates are not moved backwards
+   */
+  void updateLastUsedDates(Map<String, Date> lastUsedDates);
+
+  /**
+   * @param lastIdpValidateTimes last IdP validate time by token, stored dates are not moved
+   * backwards
+   */
+  void updateLastIdpValidateTimes(Map<String, Date> lastIdpValidateTimes);
+
+  /**
+   * Deletes at most {@code limit} records which were not used since {@code lastUsedDate}.
+   *
+   * @return number of deleted records
+   */
+  int deleteExpired(Date lastUsedDate, int limit);
+
+  /**
+   * Stores a one time access code valid for {@code perry.jwt.timeout} minutes.
+   */
+  void saveAccessCode(String accessCode, String token);
+
+  /**
+   * Looks the access code up and consumes it atomically, so a code is redeemed at most once.
+   *
+   * @return token the code was issued for or {@code null} if the code is unknown, expired or
+   * already redeemed
+   */
+  String redeemAccessCode(String accessCode);
+
+  /**
+   * @return number of deleted access codes
+   */
+  int deleteExpiredAccessCodes();
+}
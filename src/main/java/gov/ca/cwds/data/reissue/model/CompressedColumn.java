@@ -0,0 +1,57 @@
+package gov.ca.cwds.data.reissue.model;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Gzip + base64 encoding of large text columns. Compressed values carry a prefix, so plain values
+ * written before compression was enabled are read as is.
+ */
+public final class CompressedColumn {
+
+  static final String PREFIX = "gz1:";
+
+  private CompressedColumn() {
+  }
+
+  /**
+   * @return compressed value or the original one if compression doesn't make it shorter
+   */
+  public static String compress(String value) {
+    if (value == null || isCompressed(value)) {
+      return value;
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length() / 2);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+      gzip.write(value.getBytes(UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    String compressed = PREFIX + Base64.getEncoder().encodeToString(bytes.toByteArray());
+    return compressed.length() < value.length() ? compressed : value;
+  }
+
+  public static String decompress(String value) {
+    if (!isCompressed(value)) {
+      return value;
+    }
+    byte[] bytes = Base64.getDecoder().decode(value.substring(PREFIX.length()));
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return new String(StreamUtils.copyToByteArray(gzip), UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static boolean isCompressed(String value) {
+    return value != null && value.startsWith(PREFIX);
+  }
+}
@@ -0,0 +1,64 @@
+package gov.ca.cwds.data.reissue.model;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Short-lived access code issued for a perry token. Kept apart from the token record so that
+ * redemption is a primary key lookup and expired codes are reclaimed without touching tokens.
+ */
+@Entity
+@Table(name = "perry_access_code",
+    indexes = @Index(name = "perry_access_code_created_date_idx", columnList = "created_date"))
+public class PerryAccessCodeEntity implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Id
+  @Column(name = "access_code", nullable = false)
+  private String accessCode;
+  @Column(name = "token", nullable = false)
+  private String token;
+  @Column(name = "created_date", nullable = false)
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date createdDate = new Date();
+
+  public PerryAccessCodeEntity() {
+  }
+
+  public PerryAccessCodeEntity(String accessCode, String token) {
+    this.accessCode = accessCode;
+    this.token = token;
+  }
+
+  public String getAccessCode() {
+    return accessCode;
+  }
+
+  public void setAccessCode(String accessCode) {
+    this.accessCode = accessCode;
+  }
+
+  public String getToken() {
+    return token;
+  }
+
+  public void setToken(String token) {
+    this.token = token;
+  }
+
+  public Date getCreatedDate() {
+    return createdDate;
+  }
+
+  public void setCreatedDate(Date createdDate) {
+    this.createdDate = createdDate;
+  }
+}
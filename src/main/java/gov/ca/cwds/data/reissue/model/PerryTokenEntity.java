@@ -9,7 +9,8 @@ import org.apache.commons.lang3.SerializationUtils;
  * Created by TPT2 on 10/24/2017.
  */
 @Entity
-@Table(name = "perry_token")
+@Table(name = "perry_token",
+    indexes = @Index(name = "perry_token_last_used_date_idx", columnList = "last_used_date"))
 public class PerryTokenEntity implements Serializable {
   @Id
   @Column(name = "token", nullable = false)
@@ -34,6 +35,29 @@ public class PerryTokenEntity implements Serializable {
   @Temporal(TemporalType.TIMESTAMP)
   private Date lastIdpValidateTime;
 
+  private transient String decompressedSsoToken;
+  private transient String decompressedJsonToken;
+
+  public PerryTokenEntity() {
+  }
+
+  /**
+   * Copy of the given entity, modifying either of them does not affect the other.
+   */
+  public PerryTokenEntity(PerryTokenEntity other) {
+    this.token = other.token;
+    this.accessCode = other.accessCode;
+    this.user = other.user;
+    this.ssoToken = other.ssoToken;
+    this.jsonToken = other.jsonToken;
+    this.createdDate = copy(other.createdDate);
+    this.lastUsedDate = copy(other.lastUsedDate);
+    this.securityContext = other.securityContext == null ? null : other.securityContext.clone();
+    this.lastIdpValidateTime = copy(other.lastIdpValidateTime);
+    this.decompressedSsoToken = other.decompressedSsoToken;
+    this.decompressedJsonToken = other.decompressedJsonToken;
+  }
+
   public String getUser() {
     return user;
   }
@@ -42,20 +66,40 @@ public class PerryTokenEntity implements Serializable {
     this.user = user;
   }
 
+  /**
+   * @return sso token, decompressed if it is stored compressed
+   */
   public String getSsoToken() {
-    return ssoToken;
+    if (decompressedSsoToken == null) {
+      decompressedSsoToken = CompressedColumn.decompress(ssoToken);
+    }
+    return decompressedSsoToken;
   }
 
+  /**
+   * @param ssoToken plain or {@link CompressedColumn compressed} sso token
+   */
   public void setSsoToken(String ssoToken) {
     this.ssoToken = ssoToken;
+    this.decompressedSsoToken = null;
   }
 
+  /**
+   * @return json token, decompressed if it is stored compressed
+   */
   public String getJsonToken() {
-    return jsonToken;
+    if (decompressedJsonToken == null) {
+      decompressedJsonToken = CompressedColumn.decompress(jsonToken);
+    }
+    return decompressedJsonToken;
   }
 
+  /**
+   * @param jsonToken plain or {@link CompressedColumn compressed} json token
+   */
   public void setJsonToken(String jsonToken) {
     this.jsonToken = jsonToken;
+    this.decompressedJsonToken = null;
   }
 
   public Date getCreatedDate() {
@@ -105,4 +149,8 @@ public class PerryTokenEntity implements Serializable {
   public void setLastUsedDate(Date lastUsedDate) {
     this.lastUsedDate = lastUsedDate;
   }
+
+  private static Date copy(Date date) {
+    return date == null ? null : new Date(date.getTime());
+  }
 }
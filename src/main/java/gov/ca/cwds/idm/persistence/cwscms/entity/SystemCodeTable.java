@@ -3,6 +3,7 @@ package gov.ca.cwds.idm.persistence.cwscms.entity;
 import java.sql.Timestamp;
 import javax.persistence.Access;
 import javax.persistence.AccessType;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.Entity;
@@ -10,12 +11,18 @@ import javax.persistence.Id;
 import javax.persistence.Table;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.Immutable;
 import org.hibernate.annotations.Type;
 
 @Entity
 @DiscriminatorColumn(name = "FKS_META_T")
 @Table(name = "SYS_CD_C")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
+@Immutable
 public abstract class SystemCodeTable {
 
   private static final long serialVersionUID = -3979949426929339075L;
@@ -1,14 +1,21 @@
 package gov.ca.cwds.idm.persistence.cwscms.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import gov.ca.cwds.data.auth.ReadOnlyRepository;
 import gov.ca.cwds.data.persistence.auth.CwsOffice;
 import gov.ca.cwds.idm.dto.Office;
 import java.util.List;
+import javax.persistence.QueryHint;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Office lists are kept in the query cache when {@code perry.cmsCache} is enabled.
+ */
 @Profile("idm")
 @Repository
 @SuppressWarnings({"squid:S1214"})//implementation details are queries and they are put here by Spring Data design
@@ -27,12 +34,15 @@ public interface OfficeRepository extends ReadOnlyRepository<CwsOffice, String>
 
   String COUNTY_NAME_CONDITION = " and county.shortDescription = :" + COUNTY_NAME;
 
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   @Query(GET_ALL_OFFICES_QUERY)
   List<Office> findOffices();
 
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   @Query(GET_ALL_ACTIVE_OFFICES_QUERY)
   List<Office> findActiveOffices();
 
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   @Query(GET_ALL_ACTIVE_OFFICES_QUERY + COUNTY_NAME_CONDITION)
   List<Office> findCountyActiveOffices(@Param(COUNTY_NAME) String countyName);
 }
@@ -1,5 +1,6 @@
 package gov.ca.cwds.idm.service;
 
+import static gov.ca.cwds.config.CMSConfiguration.CMS_READ_ONLY_TRANSACTION_MANAGER;
 import static gov.ca.cwds.config.api.idm.Roles.COUNTY_ADMIN;
 import static gov.ca.cwds.config.api.idm.Roles.OFFICE_ADMIN;
 import static gov.ca.cwds.config.api.idm.Roles.STATE_ADMIN;
@@ -32,14 +33,14 @@ public class OfficeService {
 
   private ExceptionFactory exceptionFactory;
 
-  @Transactional(value = "transactionManager")
+  @Transactional(value = CMS_READ_ONLY_TRANSACTION_MANAGER, readOnly = true)
   public List<Office> getOffices() {
     List<Office> offices = officeRepository.findOffices();
     offices.sort(OFFICE_NAME_COMPARATOR);
     return offices;
   }
 
-  @Transactional(value = "transactionManager")
+  @Transactional(value = CMS_READ_ONLY_TRANSACTION_MANAGER, readOnly = true)
   public List<Office> getOfficesByAdmin() {
     UniversalUserToken currentUser = getCurrentUser();
 
@@ -0,0 +1,42 @@
+package gov.ca.cwds.rest.api;
+
+import gov.ca.cwds.config.Constants;
+import gov.ca.cwds.security.jwt.JwtService;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.GET;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Publishes public keys validating Perry JWTs, so resource servers can validate tokens locally.
+ */
+@RestController
+public class JwksResource {
+
+  private static final long MAX_AGE_MINUTES = 5;
+
+  private JwtService jwtService;
+
+  @GET
+  @RequestMapping(value = Constants.JWKS_SERVICE_URL, produces = "application/json",
+      method = RequestMethod.GET)
+  @ApiOperation(value = "Get JSON Web Key Set of token validating keys")
+  @ApiResponses(value = {@ApiResponse(code = 200, message = "public keys")})
+  public ResponseEntity<String> getJwkSet() {
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.maxAge(MAX_AGE_MINUTES, TimeUnit.MINUTES))
+        .body(jwtService.getJwkSet());
+  }
+
+  @Autowired
+  public void setJwtService(JwtService jwtService) {
+    this.jwtService = jwtService;
+  }
+}
@@ -0,0 +1,186 @@
+package gov.ca.cwds.service;
+
+import static gov.ca.cwds.util.Utils.toUpperCase;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.PerryProperties.CwsUserCacheConfiguration;
+import gov.ca.cwds.service.dto.CwsUserInfo;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory cache of CWS/CMS users keyed by upper-cased RACFID.
+ *
+ * <p>Found users live for {@code perry.cwsUserCache.expireAfterWrite} seconds. RACFIDs having no
+ * active user are cached as well, but only for {@code perry.cwsUserCache.negativeExpireAfterWrite}
+ * seconds, so users created in CWS/CMS are picked up soon.</p>
+ */
+@Component
+public class CwsUserInfoCache implements PublicMetrics {
+
+  private static final String METRIC_PREFIX = "perry.cwsUser.cache.";
+
+  private PerryProperties properties;
+  private Cache<String, CachedCwsUsers> cache;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder negativeHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder hitAge = new LongAdder();
+
+  @PostConstruct
+  public void init() {
+    CwsUserCacheConfiguration configuration = properties.getCwsUserCache();
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(configuration.getMaximumSize())
+        .expireAfterWrite(configuration.getExpireAfterWrite(), TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns users of the given RACFIDs, RACFIDs missing in the cache are loaded by a single call
+   * of the loader.
+   *
+   * @param racfIds RACFIDs
+   * @param loader loads users of upper-cased RACFIDs
+   * @return users found, in no particular order
+   */
+  public List<CwsUserInfo> getAll(Collection<String> racfIds,
+      Function<Collection<String>, Collection<CwsUserInfo>> loader) {
+    Set<String> keys = new LinkedHashSet<>();
+    racfIds.forEach(racfId -> keys.add(toUpperCase(racfId)));
+    if (!isEnabled()) {
+      return new ArrayList<>(loader.apply(keys));
+    }
+
+    List<CwsUserInfo> result = new ArrayList<>();
+    List<String> missingKeys = new ArrayList<>();
+    long now = System.currentTimeMillis();
+    for (String key : keys) {
+      CachedCwsUsers cachedUsers = getIfPresent(key, now);
+      if (cachedUsers == null) {
+        missingKeys.add(key);
+      } else {
+        result.addAll(cachedUsers.users);
+      }
+    }
+    if (!missingKeys.isEmpty()) {
+      result.addAll(load(missingKeys, loader));
+    }
+    return result;
+  }
+
+  public void invalidate(String racfId) {
+    cache.invalidate(toUpperCase(racfId));
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long requestCount = hitCount + missCount;
+    List<Metric<?>> metrics = new ArrayList<>();
+    metrics.add(new Metric<>(METRIC_PREFIX + "size", cache.size()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "hits", hitCount));
+    metrics.add(new Metric<>(METRIC_PREFIX + "negativeHits", negativeHits.sum()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "misses", missCount));
+    metrics.add(new Metric<>(METRIC_PREFIX + "hitRate",
+        requestCount == 0 ? 1.0 : (double) hitCount / requestCount));
+    metrics.add(new Metric<>(METRIC_PREFIX + "loads", loads.sum()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "evictions", cache.stats().evictionCount()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "averageHitAge",
+        hitCount == 0 ? 0 : hitAge.sum() / hitCount)); //milliseconds
+    metrics.add(new Metric<>(METRIC_PREFIX + "oldestEntryAge", getOldestEntryAge()));
+    return metrics;
+  }
+
+  private CachedCwsUsers getIfPresent(String key, long now) {
+    CachedCwsUsers cachedUsers = cache.getIfPresent(key);
+    if (cachedUsers != null && cachedUsers.users.isEmpty()
+        && now - cachedUsers.loadTime >= negativeExpireAfterWrite()) {
+      cache.asMap().remove(key, cachedUsers);
+      cachedUsers = null;
+    }
+    if (cachedUsers == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    hitAge.add(now - cachedUsers.loadTime);
+    if (cachedUsers.users.isEmpty()) {
+      negativeHits.increment();
+    }
+    return cachedUsers;
+  }
+
+  private Collection<CwsUserInfo> load(List<String> keys,
+      Function<Collection<String>, Collection<CwsUserInfo>> loader) {
+    loads.increment();
+    long loadTime = System.currentTimeMillis();
+    Collection<CwsUserInfo> users = loader.apply(keys);
+    Map<String, List<CwsUserInfo>> usersByKey = new HashMap<>();
+    for (CwsUserInfo user : users) {
+      usersByKey.computeIfAbsent(toUpperCase(user.getRacfId()), key -> new ArrayList<>(1))
+          .add(user);
+    }
+    for (String key : keys) {
+      List<CwsUserInfo> keyUsers = usersByKey.getOrDefault(key, Collections.emptyList());
+      cache.put(key, new CachedCwsUsers(keyUsers, loadTime));
+    }
+    return users;
+  }
+
+  private long getOldestEntryAge() {
+    long now = System.currentTimeMillis();
+    return cache.asMap().values().stream()
+        .mapToLong(cachedUsers -> now - cachedUsers.loadTime)
+        .max()
+        .orElse(0);
+  }
+
+  private long negativeExpireAfterWrite() {
+    return TimeUnit.SECONDS.toMillis(properties.getCwsUserCache().getNegativeExpireAfterWrite());
+  }
+
+  private boolean isEnabled() {
+    return properties.getCwsUserCache().isEnabled();
+  }
+
+  @Autowired
+  public void setProperties(PerryProperties properties) {
+    this.properties = properties;
+  }
+
+  private static final class CachedCwsUsers {
+
+    private final List<CwsUserInfo> users;
+    private final long loadTime;
+
+    private CachedCwsUsers(List<CwsUserInfo> users, long loadTime) {
+      this.users = Collections.unmodifiableList(users);
+      this.loadTime = loadTime;
+    }
+  }
+}
@@ -1,8 +1,10 @@
 package gov.ca.cwds.service;
 
+import static gov.ca.cwds.config.CMSConfiguration.CMS_READ_ONLY_TRANSACTION_MANAGER;
 import static gov.ca.cwds.util.Utils.formatDate;
 import static gov.ca.cwds.util.Utils.toUpperCase;
 
+import com.google.common.collect.Lists;
 import gov.ca.cwds.data.auth.UserIdDao;
 import gov.ca.cwds.data.persistence.auth.CwsOffice;
 import gov.ca.cwds.data.persistence.auth.StaffPerson;
@@ -10,13 +12,19 @@ import gov.ca.cwds.data.persistence.auth.UserId;
 import gov.ca.cwds.rest.api.domain.auth.StaffAuthorityPrivilege;
 import gov.ca.cwds.rest.api.domain.auth.StaffUnitAuthority;
 import gov.ca.cwds.service.dto.CwsUserInfo;
+import gov.ca.cwds.service.dto.CwsUserProjection;
+import gov.ca.cwds.util.Utils;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -27,15 +35,24 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 @Service
-@Transactional("transactionManager")
+@Transactional(value = CMS_READ_ONLY_TRANSACTION_MANAGER, readOnly = true)
 public class CwsUserInfoService {
 
   private static final int RACFID_MAX_LENGTH = 8;
 
+  /**
+   * RACFIDs loaded by one set of queries, keeps IN lists well below the DB2 parameter limit.
+   */
+  static final int RACFID_CHUNK_SIZE = 500;
+
   private static final Logger LOGGER = LoggerFactory.getLogger(CwsUserInfoService.class);
 
   @Autowired private UserIdDao userIdDao;
 
+  private CwsUserInfoCache cwsUserInfoCache;
+
+  private StaffAssignmentCache staffAssignmentCache;
+
   public CwsUserInfo composeForUserAuthorization(Serializable primaryKey) {
     Optional<UserId> userId = findUserId(primaryKey);
     if (!userId.isPresent()) {
@@ -43,7 +60,61 @@ public class CwsUserInfoService {
       return null;
     }
     UserId user = userId.get();
-    return getCwsUserInfo(user);
+    return getCwsUserInfo(user, this::hasAssignments);
+  }
+
+  /**
+   * Bulk version of {@link #composeForUserAuthorization(Serializable)}. RACFIDs are upper-cased
+   * and loaded in chunks of {@value #RACFID_CHUNK_SIZE}, users, privileges, unit authorities and
+   * assignment flags of a chunk are loaded by a fixed number of queries whatever the number of
+   * RACFIDs in it is.
+   *
+   * @param racfIds RACFIDs
+   * @return complete user info by RACFID, RACFIDs of users not found or not having staff person
+   * or office are omitted
+   */
+  public Map<String, CwsUserInfo> composeForUserAuthorization(Collection<String> racfIds) {
+    List<String> filtered =
+        racfIds
+            .stream()
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .filter(e -> e.length() <= RACFID_MAX_LENGTH)
+            .map(Utils::toUpperCase)
+            .distinct()
+            .collect(Collectors.toList());
+    Map<String, CwsUserInfo> result = new HashMap<>();
+    for (List<String> chunk : Lists.partition(filtered, RACFID_CHUNK_SIZE)) {
+      composeForUserAuthorization(chunk, result);
+    }
+    return result;
+  }
+
+  private void composeForUserAuthorization(List<String> racfIds, Map<String, CwsUserInfo> result) {
+    List<UserId> users = userIdDao.findActiveWithPrivilegesByLogonIdIn(racfIds);
+    Set<String> staffPersonIds =
+        users
+            .stream()
+            .map(UserId::getStaffPerson)
+            .filter(Objects::nonNull)
+            .map(StaffPerson::getId)
+            .collect(Collectors.toSet());
+    if (staffPersonIds.isEmpty()) {
+      return;
+    }
+    // populates unit authorities of the staff persons already loaded with the users
+    userIdDao.findStaffPersonsWithUnitAuthorities(staffPersonIds);
+    Map<String, Boolean> assignments = hasAssignments(staffPersonIds);
+
+    for (UserId user : users) {
+      if (!result.containsKey(user.getLogonId())) {
+        CwsUserInfo cwsUserInfo = getCwsUserInfo(user,
+            staffPersonId -> assignments.getOrDefault(staffPersonId, false));
+        if (cwsUserInfo != null) {
+          result.put(user.getLogonId(), cwsUserInfo);
+        }
+      }
+    }
   }
 
   public CwsUserInfo getCwsUserByRacfId(String racfId) {
@@ -59,17 +130,17 @@ public class CwsUserInfoService {
   }
 
   // just because of codeclimate 25 lines of code allowed rule
-  private CwsUserInfo getCwsUserInfo(UserId user) {
-    boolean socialWorker = isSocialWorker(user);
-    Set<StaffAuthorityPrivilege> userAuthPrivs = getStaffAuthorityPriveleges(user);
-    Set<StaffUnitAuthority> setStaffUnitAuths = getStaffUnitAuthorities(user);
+  private CwsUserInfo getCwsUserInfo(UserId user, Predicate<String> hasAssignmentsCheck) {
     StaffPerson staffPerson = user.getStaffPerson();
     if (staffPerson == null) {
       LOGGER.warn("No staff person found for UserId {}", user.getLogonId());
       return null;
     }
+    boolean socialWorker = isSocialWorker(user);
+    Set<StaffAuthorityPrivilege> userAuthPrivs = getStaffAuthorityPriveleges(user);
+    Set<StaffUnitAuthority> setStaffUnitAuths = getStaffUnitAuthorities(user);
 
-    boolean hasAssignments = userIdDao.assignmentsCount(staffPerson.getId()) > 0;
+    boolean hasAssignments = hasAssignmentsCheck.test(staffPerson.getId());
 
     CwsOffice cwsOffice = staffPerson.getOffice();
     if (cwsOffice == null) {
@@ -90,6 +161,28 @@ public class CwsUserInfoService {
     return cwsUserInfo;
   }
 
+  private boolean hasAssignments(String staffPersonId) {
+    if (staffAssignmentCache == null) {
+      return !userIdDao.findAnyAssignment(staffPersonId).isEmpty();
+    }
+    return staffAssignmentCache.hasAssignments(staffPersonId);
+  }
+
+  private Map<String, Boolean> hasAssignments(Collection<String> staffPersonIds) {
+    if (staffAssignmentCache == null) {
+      Set<String> withAssignments =
+          userIdDao
+              .findStaffPersonsWithAssignments(staffPersonIds)
+              .stream()
+              .map(String::trim)
+              .collect(Collectors.toSet());
+      return staffPersonIds
+          .stream()
+          .collect(Collectors.toMap(Function.identity(), withAssignments::contains));
+    }
+    return staffAssignmentCache.hasAssignments(staffPersonIds);
+  }
+
   private boolean isSocialWorker(UserId userId) {
     return Optional.ofNullable(userId.getPrivileges())
         .orElse(Collections.emptySet())
@@ -110,17 +203,47 @@ public class CwsUserInfoService {
     if (CollectionUtils.isEmpty(filtered)) {
       return Collections.emptyList();
     }
-    Set<UserId> userIdList = userIdDao.findActiveByLogonIdIn(filtered);
-    return userIdList.stream().map(this::composeCwsUserInfo).collect(Collectors.toList());
+    if (cwsUserInfoCache == null) {
+      return loadUsers(filtered);
+    }
+    return cwsUserInfoCache.getAll(filtered, this::loadUsers);
   }
 
-  private CwsUserInfo composeCwsUserInfo(UserId userId) {
-    CwsOffice office =
-        Optional.ofNullable(userId.getStaffPerson()).map(StaffPerson::getOffice).orElse(null);
+  private List<CwsUserInfo> loadUsers(Collection<String> racfIds) {
+    return userIdDao.findActiveProjectionsByLogonIdIn(racfIds)
+        .stream()
+        .map(CwsUserInfoService::composeCwsUserInfo)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Staff person and office are built from the projection, they are not managed entities.
+   */
+  private static CwsUserInfo composeCwsUserInfo(CwsUserProjection user) {
+    StaffPerson staffPerson = null;
+    CwsOffice office = null;
+    if (user.getStaffPersonId() != null) {
+      staffPerson = new StaffPerson();
+      staffPerson.setId(user.getStaffPersonId());
+      staffPerson.setFirstName(user.getFirstName());
+      staffPerson.setLastName(user.getLastName());
+      staffPerson.setStartDate(user.getStartDate());
+      staffPerson.setEndDate(user.getEndDate());
+      staffPerson.setPhoneNumber(user.getPhoneNumber());
+      staffPerson.setPhoneExtensionNumber(user.getPhoneExtensionNumber());
+      staffPerson.setCountyCode(user.getCountyCode());
+      if (user.getOfficeId() != null) {
+        office = new CwsOffice(user.getOfficeId(), null, null, user.getGovernmentEntityType(),
+            null, null, null, null, null, null, user.getPrimaryPhoneNumber(),
+            user.getPrimaryPhoneExtensionNumber(), null, null, null, null,
+            user.getCwsOfficeName(), user.getCountySpecificCode(), null, null, null);
+        staffPerson.setOffice(office);
+      }
+    }
     return CwsUserInfo.CwsUserInfoBuilder.aCwsUserInfo()
-        .withRacfId(userId.getLogonId())
+        .withRacfId(user.getLogonId())
         .withCwsOffice(office)
-        .withStaffPerson(userId.getStaffPerson())
+        .withStaffPerson(staffPerson)
         .build();
   }
 
@@ -188,4 +311,14 @@ public class CwsUserInfoService {
   public void setUserIdDao(UserIdDao userIdDao) {
     this.userIdDao = userIdDao;
   }
+
+  @Autowired
+  public void setCwsUserInfoCache(CwsUserInfoCache cwsUserInfoCache) {
+    this.cwsUserInfoCache = cwsUserInfoCache;
+  }
+
+  @Autowired
+  public void setStaffAssignmentCache(StaffAssignmentCache staffAssignmentCache) {
+    this.staffAssignmentCache = staffAssignmentCache;
+  }
 }
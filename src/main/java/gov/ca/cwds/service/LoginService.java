@@ -1,6 +1,7 @@
 package gov.ca.cwds.service;
 
 import gov.ca.cwds.UniversalUserToken;
+import gov.ca.cwds.service.token.ValidatedPerryToken;
 
 /**
  * Created by TPT2 on 10/24/2017.
@@ -10,6 +11,8 @@ public interface LoginService {
 
   UniversalUserToken validate(String perryToken);
 
+  ValidatedPerryToken validateToken(String perryToken);
+
   void invalidate(String perryToken);
 
   String issueToken(String accessCode);
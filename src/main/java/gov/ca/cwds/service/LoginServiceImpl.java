@@ -1,9 +1,9 @@
 package gov.ca.cwds.service;
 
 import gov.ca.cwds.UniversalUserToken;
-import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
 import gov.ca.cwds.event.UserLoggedInEvent;
 import gov.ca.cwds.service.sso.SsoService;
+import gov.ca.cwds.service.token.ValidatedPerryToken;
 import java.time.LocalDateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
@@ -40,9 +40,14 @@ public class LoginServiceImpl implements LoginService {
 
   @Override
   public UniversalUserToken validate(String perryToken) {
-    PerryTokenEntity perryTokenEntity = tokenService.getPerryToken(perryToken);
-    ssoService.validate(perryTokenEntity);
-    return UniversalUserToken.fromJson(perryTokenEntity.getJsonToken());
+    return validateToken(perryToken).getUniversalUserToken();
+  }
+
+  @Override
+  public ValidatedPerryToken validateToken(String perryToken) {
+    ValidatedPerryToken validatedToken = tokenService.getValidatedPerryToken(perryToken);
+    ssoService.validate(validatedToken.getPerryTokenEntity());
+    return validatedToken;
   }
 
   @Override
@@ -0,0 +1,180 @@
+package gov.ca.cwds.service;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.PerryProperties.StaffAssignmentCacheConfiguration;
+import gov.ca.cwds.data.auth.UserIdDao;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cached flag telling whether a staff person has open case or referral assignments.
+ *
+ * <p>The flag is checked in CWS/CMS on the first login of a staff person. It is reloaded in the
+ * background when accessed more than {@code perry.staffAssignmentCache.refreshInterval} seconds
+ * after the last check, the previous value is served meanwhile.</p>
+ */
+@Component
+public class StaffAssignmentCache implements PublicMetrics {
+
+  private static final String METRIC_PREFIX = "perry.staffAssignment.";
+
+  private PerryProperties properties;
+  private UserIdDao userIdDao;
+  private LoadingCache<String, Boolean> cache;
+  private ExecutorService executor;
+
+  private final LongAdder checks = new LongAdder();
+  private final LongAdder totalCheckTime = new LongAdder();
+  private final LongAccumulator maxCheckTime = new LongAccumulator(Long::max, 0);
+
+  @PostConstruct
+  public void init() {
+    StaffAssignmentCacheConfiguration configuration = properties.getStaffAssignmentCache();
+    executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "staff-assignment-refresher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(configuration.getMaximumSize())
+        .refreshAfterWrite(configuration.getRefreshInterval(), TimeUnit.SECONDS)
+        .recordStats()
+        .build(CacheLoader.asyncReloading(new StaffAssignmentLoader(), executor));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  public boolean hasAssignments(String staffPersonId) {
+    if (!properties.getStaffAssignmentCache().isEnabled()) {
+      return check(staffPersonId);
+    }
+    try {
+      return cache.getUnchecked(staffPersonId);
+    } catch (UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * @return flags of the given staff persons, flags missing in the cache are checked by a single
+   * query
+   */
+  public Map<String, Boolean> hasAssignments(Collection<String> staffPersonIds) {
+    if (!properties.getStaffAssignmentCache().isEnabled()) {
+      return check(staffPersonIds);
+    }
+    try {
+      return cache.getAll(staffPersonIds);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new UncheckedExecutionException(e.getCause());
+    }
+  }
+
+  public void invalidate(String staffPersonId) {
+    cache.invalidate(staffPersonId);
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    CacheStats stats = cache.stats();
+    long checkCount = checks.sum();
+    List<Metric<?>> metrics = new ArrayList<>();
+    metrics.add(new Metric<>(METRIC_PREFIX + "cache.size", cache.size()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "cache.hits", stats.hitCount()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "cache.misses", stats.missCount()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "cache.hitRate", stats.hitRate()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "checks", checkCount));
+    metrics.add(new Metric<>(METRIC_PREFIX + "check.totalTime", totalCheckTime.sum()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "check.maxTime", maxCheckTime.get()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "check.averageTime",
+        checkCount == 0 ? 0 : totalCheckTime.sum() / checkCount));
+    return metrics;
+  }
+
+  private boolean check(String staffPersonId) {
+    long start = System.currentTimeMillis();
+    try {
+      return !userIdDao.findAnyAssignment(staffPersonId).isEmpty();
+    } finally {
+      recordCheck(start);
+    }
+  }
+
+  private Map<String, Boolean> check(Collection<String> staffPersonIds) {
+    long start = System.currentTimeMillis();
+    try {
+      Set<String> withAssignments = new HashSet<>();
+      userIdDao.findStaffPersonsWithAssignments(staffPersonIds)
+          .forEach(staffPersonId -> withAssignments.add(staffPersonId.trim()));
+      Map<String, Boolean> result = new HashMap<>();
+      staffPersonIds.forEach(
+          staffPersonId -> result.put(staffPersonId, withAssignments.contains(staffPersonId)));
+      return result;
+    } finally {
+      recordCheck(start);
+    }
+  }
+
+  private void recordCheck(long start) {
+    long duration = System.currentTimeMillis() - start;
+    checks.increment();
+    totalCheckTime.add(duration);
+    maxCheckTime.accumulate(duration);
+  }
+
+  @Autowired
+  public void setProperties(PerryProperties properties) {
+    this.properties = properties;
+  }
+
+  @Autowired
+  public void setUserIdDao(UserIdDao userIdDao) {
+    this.userIdDao = userIdDao;
+  }
+
+  private class StaffAssignmentLoader extends CacheLoader<String, Boolean> {
+
+    @Override
+    public Boolean load(String staffPersonId) {
+      return check(staffPersonId);
+    }
+
+    @Override
+    public Map<String, Boolean> loadAll(Iterable<? extends String> staffPersonIds) {
+      List<String> ids = new ArrayList<>();
+      staffPersonIds.forEach(ids::add);
+      return check(ids);
+    }
+  }
+}
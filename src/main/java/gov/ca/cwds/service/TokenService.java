@@ -2,95 +2,128 @@ package gov.ca.cwds.service;
 
 import gov.ca.cwds.PerryProperties;
 import gov.ca.cwds.UniversalUserToken;
-import gov.ca.cwds.data.reissue.TokenRepository;
+import gov.ca.cwds.data.reissue.TokenStore;
 import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
 import gov.ca.cwds.rest.api.domain.PerryException;
+import gov.ca.cwds.service.token.CachedPerryToken;
+import gov.ca.cwds.service.token.PerryTokenCache;
+import gov.ca.cwds.service.token.PerryTokenCodec;
+import gov.ca.cwds.service.token.TokenWriteBehindBuffer;
+import gov.ca.cwds.service.token.ValidatedPerryToken;
 import java.io.Serializable;
-import java.sql.Timestamp;
 import java.util.Date;
-import java.util.List;
 import java.util.Optional;
-import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.common.util.RandomValueStringGenerator;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Created by TPT2 on 10/27/2017.
  */
 @Service
-@Transactional(value = "tokenTransactionManager", noRollbackFor = PerryException.class)
 public class TokenService {
 
   private static final String ACCESS_CODE = "Access Code: ";
 
   private PerryProperties properties;
-  private TokenRepository tokenRepository;
+  private TokenStore tokenStore;
+  private PerryTokenCache tokenCache;
+  private TokenWriteBehindBuffer writeBehindBuffer;
+  private PerryTokenCodec tokenCodec;
   private RandomValueStringGenerator generator = new RandomValueStringGenerator();
 
   public String issueAccessCode(UniversalUserToken userToken, String ssoToken, String jsonToken, Serializable securityContext) {
     String accessCode = generator.generate();
     PerryTokenEntity perryTokenEntity = new PerryTokenEntity();
     perryTokenEntity.setUser(userToken.getUserId());
-    perryTokenEntity.setAccessCode(accessCode);
-    perryTokenEntity.setSsoToken(ssoToken);
-    perryTokenEntity.setJsonToken(jsonToken);
+    perryTokenEntity.setSsoToken(tokenCodec.encodeSsoToken(ssoToken));
+    perryTokenEntity.setJsonToken(tokenCodec.encodeJsonToken(jsonToken));
     perryTokenEntity.setToken(userToken.getToken());
-    perryTokenEntity.setSecurityContext(SerializationUtils.serialize(securityContext));
+    perryTokenEntity.setSecurityContext(tokenCodec.encodeSecurityContext(securityContext));
     perryTokenEntity.setLastUsedDate(perryTokenEntity.getCreatedDate());
-    deleteExpiredRecords();
-    tokenRepository.save(perryTokenEntity);
+    tokenStore.save(perryTokenEntity);
+    tokenStore.saveAccessCode(accessCode, perryTokenEntity.getToken());
     return accessCode;
   }
 
-  private void deleteExpiredRecords() {
-    Date validLastUsedDate = DateUtils.addMinutes(new Date(), -properties.getTokenRecordTimeout());
-    tokenRepository.deleteByLastUsedDateBeforeOrLastUsedDateIsNull(
-        new Timestamp(validLastUsedDate.getTime()));
-  }
-
   public String getPerryTokenByAccessCode(String accessCode) {
-    List<PerryTokenEntity> tokens = tokenRepository.findByAccessCode(accessCode);
-    if (tokens.isEmpty()) {
-      throw new PerryException(ACCESS_CODE + accessCode + " is not found");
-    }
-    if (tokens.size() > 1) {
-      tokenRepository.delete(tokens);
-      throw new PerryException(ACCESS_CODE + accessCode + " is not unique");
+    String token = tokenStore.redeemAccessCode(accessCode);
+    if (token == null) {
+      throw new PerryException(ACCESS_CODE + accessCode + " is not found or expired");
     }
-    PerryTokenEntity perryTokenEntity = tokens.get(0);
-    if (new Date().after(DateUtils.addMinutes(perryTokenEntity.getCreatedDate(), properties.getJwt().getTimeout()))) {
-      tokenRepository.delete(perryTokenEntity);
-      throw new PerryException(ACCESS_CODE + accessCode + " is expired");
-    }
-    perryTokenEntity.setAccessCode(null);
-    return perryTokenEntity.getToken();
+    return token;
   }
 
   public void update(PerryTokenEntity perryTokenEntity) {
-    tokenRepository.save(perryTokenEntity);
+    tokenStore.save(perryTokenEntity);
+    tokenCache.put(perryTokenEntity);
+  }
+
+  public void updateLastIdpValidateTime(PerryTokenEntity perryTokenEntity, Date lastIdpValidateTime) {
+    perryTokenEntity.setLastIdpValidateTime(lastIdpValidateTime);
+    writeBehindBuffer.touchIdpValidateTime(perryTokenEntity.getToken(), lastIdpValidateTime);
+    tokenCache.put(perryTokenEntity);
   }
 
   public String deleteToken(String token) {
     Optional<String> accessToken =
-        Optional.ofNullable(tokenRepository.findOne(token)).map(PerryTokenEntity::getSsoToken);
+        Optional.ofNullable(tokenStore.findByToken(token)).map(PerryTokenEntity::getSsoToken);
+    tokenCache.invalidate(token);
+    writeBehindBuffer.discard(token);
     try {
-      tokenRepository.delete(token);
+      tokenStore.delete(token);
     } catch (Exception e) {
       throw new PerryException("token: " + token + " is not present!", e);
     }
     return accessToken.orElseThrow(() -> new PerryException("token entry: '" + token + "' is invalid!"));
   }
 
+  /**
+   * Cache hits don't touch the token store at all. Last used date is written behind.
+   *
+   * @return entity owned by the caller, changing it affects neither the cache nor the store
+   */
   public PerryTokenEntity getPerryToken(String token) {
-    PerryTokenEntity perryTokenEntity = tokenRepository.findOne(token);
+    CachedPerryToken cachedToken = tokenCache.get(token);
+    if (cachedToken != null) {
+      return touch(cachedToken.getPerryTokenEntity());
+    }
+    PerryTokenEntity perryTokenEntity = loadPerryToken(token);
+    tokenCache.put(perryTokenEntity);
+    return touch(perryTokenEntity);
+  }
+
+  /**
+   * Same as {@link #getPerryToken(String)}, the user token is parsed once per cached token.
+   *
+   * @return entity and user token owned by the caller
+   */
+  public ValidatedPerryToken getValidatedPerryToken(String token) {
+    CachedPerryToken cachedToken = tokenCache.get(token);
+    if (cachedToken == null) {
+      cachedToken = CachedPerryToken.of(loadPerryToken(token));
+      tokenCache.put(cachedToken);
+    }
+    UniversalUserToken universalUserToken = cachedToken.getUniversalUserToken();
+    return new ValidatedPerryToken(touch(cachedToken.getPerryTokenEntity()), universalUserToken);
+  }
+
+  private PerryTokenEntity loadPerryToken(String token) {
+    PerryTokenEntity perryTokenEntity = tokenStore.findByToken(token);
     if(perryTokenEntity == null) {
       throw new PerryException("token: " + token + " is not found");
     }
+    writeBehindBuffer.apply(perryTokenEntity);
     validateToken(perryTokenEntity);
-    perryTokenEntity.setLastUsedDate(new Date());
+    return perryTokenEntity;
+  }
+
+  private PerryTokenEntity touch(PerryTokenEntity perryTokenEntity) {
+    Date lastUsedDate = new Date();
+    perryTokenEntity.setLastUsedDate(lastUsedDate);
+    writeBehindBuffer.touch(perryTokenEntity.getToken(), lastUsedDate);
+    tokenCache.touch(perryTokenEntity.getToken(), lastUsedDate);
     return perryTokenEntity;
   }
 
@@ -100,15 +133,32 @@ public class TokenService {
   }
 
   @Autowired
-  public void setTokenRepository(TokenRepository tokenRepository) {
-    this.tokenRepository = tokenRepository;
+  public void setTokenStore(TokenStore tokenStore) {
+    this.tokenStore = tokenStore;
+  }
+
+  @Autowired
+  public void setTokenCache(PerryTokenCache tokenCache) {
+    this.tokenCache = tokenCache;
+  }
+
+  @Autowired
+  public void setWriteBehindBuffer(TokenWriteBehindBuffer writeBehindBuffer) {
+    this.writeBehindBuffer = writeBehindBuffer;
+  }
+
+  @Autowired
+  public void setTokenCodec(PerryTokenCodec tokenCodec) {
+    this.tokenCodec = tokenCodec;
   }
 
   private void validateToken(PerryTokenEntity perryTokenEntity) {
     Date expirationDate =
         DateUtils.addMinutes(perryTokenEntity.getLastUsedDate(), properties.getTokenRecordTimeout());
     if (new Date().after(expirationDate)) {
-      tokenRepository.delete(perryTokenEntity);
+      tokenCache.invalidate(perryTokenEntity.getToken());
+      writeBehindBuffer.discard(perryTokenEntity.getToken());
+      tokenStore.delete(perryTokenEntity);
       throw new PerryException("Token " + perryTokenEntity.getToken() +
           " for user:" + perryTokenEntity.getUser() + " is expired");
     }
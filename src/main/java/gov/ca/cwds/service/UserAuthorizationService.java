@@ -1,7 +1,11 @@
 package gov.ca.cwds.service;
 
 import gov.ca.cwds.rest.api.domain.auth.UserAuthorization;
+import gov.ca.cwds.service.dto.CwsUserInfo;
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,21 +21,36 @@ public class UserAuthorizationService {
 
   public UserAuthorization find(Serializable primaryKey) {
     return Optional.ofNullable(cwsUserInfoService.composeForUserAuthorization(primaryKey))
-        .map(
-            e ->
-                new UserAuthorization(
-                    e.getRacfId(),
-                    e.isSocialWorker(),
-                    false,
-                    true,
-                    e.getUserAuthPrivs(),
-                    e.getStaffUnitAuths(),
-                    e.getCwsOffice(),
-                    e.getStaffPerson(),
-                    e.getHasAssignments()))
+        .map(UserAuthorizationService::toUserAuthorization)
         .orElse(null);
   }
 
+  /**
+   * Loads authorizations of many users at once, e.g. for reindexing or warming up caches.
+   *
+   * @param racfIds RACFIDs
+   * @return authorizations by RACFID, RACFIDs of unknown users are omitted
+   */
+  public Map<String, UserAuthorization> findAll(Collection<String> racfIds) {
+    Map<String, UserAuthorization> result = new HashMap<>();
+    cwsUserInfoService.composeForUserAuthorization(racfIds)
+        .forEach((racfId, cwsUserInfo) -> result.put(racfId, toUserAuthorization(cwsUserInfo)));
+    return result;
+  }
+
+  private static UserAuthorization toUserAuthorization(CwsUserInfo cwsUserInfo) {
+    return new UserAuthorization(
+        cwsUserInfo.getRacfId(),
+        cwsUserInfo.isSocialWorker(),
+        false,
+        true,
+        cwsUserInfo.getUserAuthPrivs(),
+        cwsUserInfo.getStaffUnitAuths(),
+        cwsUserInfo.getCwsOffice(),
+        cwsUserInfo.getStaffPerson(),
+        cwsUserInfo.getHasAssignments());
+  }
+
   public void setCwsUserInfoService(CwsUserInfoService cwsUserInfoService) {
     this.cwsUserInfoService = cwsUserInfoService;
   }
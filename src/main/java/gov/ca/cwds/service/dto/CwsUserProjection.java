@@ -0,0 +1,112 @@
+package gov.ca.cwds.service.dto;
+
+import java.time.LocalDate;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Columns of an active CWS/CMS user, its staff person and office selected by a single query
+ * instead of loading managed entities.
+ */
+public class CwsUserProjection {
+
+  private final String logonId;
+
+  private final String staffPersonId;
+  private final String firstName;
+  private final String lastName;
+  private final LocalDate startDate;
+  private final LocalDate endDate;
+  private final String phoneNumber;
+  private final String phoneExtensionNumber;
+  private final String countyCode;
+
+  private final String officeId;
+  private final String cwsOfficeName;
+  private final Short governmentEntityType;
+  private final Long primaryPhoneNumber;
+  private final String primaryPhoneExtensionNumber;
+  private final String countySpecificCode;
+
+  @SuppressWarnings("squid:S00107")//constructor expression of a JPQL query
+  public CwsUserProjection(String logonId, String staffPersonId, String firstName,
+      String lastName, LocalDate startDate, LocalDate endDate, String phoneNumber,
+      String phoneExtensionNumber, String countyCode, String officeId, String cwsOfficeName,
+      Short governmentEntityType, Long primaryPhoneNumber, String primaryPhoneExtensionNumber,
+      String countySpecificCode) {
+    this.logonId = StringUtils.trimToEmpty(logonId);
+    this.staffPersonId = staffPersonId;
+    this.firstName = firstName;
+    this.lastName = lastName;
+    this.startDate = startDate;
+    this.endDate = endDate;
+    this.phoneNumber = phoneNumber;
+    this.phoneExtensionNumber = phoneExtensionNumber;
+    this.countyCode = countyCode;
+    this.officeId = officeId;
+    this.cwsOfficeName = cwsOfficeName;
+    this.governmentEntityType = governmentEntityType;
+    this.primaryPhoneNumber = primaryPhoneNumber;
+    this.primaryPhoneExtensionNumber = primaryPhoneExtensionNumber;
+    this.countySpecificCode = countySpecificCode;
+  }
+
+  public String getLogonId() {
+    return logonId;
+  }
+
+  public String getStaffPersonId() {
+    return staffPersonId;
+  }
+
+  public String getFirstName() {
+    return firstName;
+  }
+
+  public String getLastName() {
+    return lastName;
+  }
+
+  public LocalDate getStartDate() {
+    return startDate;
+  }
+
+  public LocalDate getEndDate() {
+    return endDate;
+  }
+
+  public String getPhoneNumber() {
+    return phoneNumber;
+  }
+
+  public String getPhoneExtensionNumber() {
+    return phoneExtensionNumber;
+  }
+
+  public String getCountyCode() {
+    return countyCode;
+  }
+
+  public String getOfficeId() {
+    return officeId;
+  }
+
+  public String getCwsOfficeName() {
+    return cwsOfficeName;
+  }
+
+  public Short getGovernmentEntityType() {
+    return governmentEntityType;
+  }
+
+  public Long getPrimaryPhoneNumber() {
+    return primaryPhoneNumber;
+  }
+
+  public String getPrimaryPhoneExtensionNumber() {
+    return primaryPhoneExtensionNumber;
+  }
+
+  public String getCountySpecificCode() {
+    return countySpecificCode;
+  }
+}
@@ -5,13 +5,13 @@ import gov.ca.cwds.service.mfa.model.AuthParameters;
 import gov.ca.cwds.service.mfa.model.CognitoResponse;
 import gov.ca.cwds.service.mfa.model.RefreshRequest;
 import gov.ca.cwds.service.mfa.model.RefreshResponse;
+import gov.ca.cwds.util.JsonCodec;
 import io.swagger.models.RefResponse;
 import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import org.codehaus.jackson.map.ObjectMapper;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.oauth2.client.DefaultOAuth2ClientContext;
 import org.springframework.security.oauth2.client.OAuth2ClientContext;
@@ -28,7 +28,6 @@ public class CognitoResponseService {
 
   private static final String CONTEXT_ATTR_NAME = "OAUTH2_CLIENT_CONTEXT";
   private static final String DEVICE_KEY_ATTR_NAME = "DEVICE_KEY";
-  private ObjectMapper objectMapper = new ObjectMapper();
 
   @SuppressWarnings("unchecked")
   public void put(OAuth2ClientContext clientContext, OAuth2Authentication authentication) {
@@ -37,7 +36,7 @@ public class CognitoResponseService {
 
   public OAuth2ClientContext convert(String json) {
     try {
-      CognitoResponse cognitoResponse = objectMapper.readValue(json, CognitoResponse.class);
+      CognitoResponse cognitoResponse = JsonCodec.read(json, CognitoResponse.class);
       return convert(cognitoResponse);
     } catch (IOException e) {
       throw new PerryException("Error processing Cognito json: " + json, e);
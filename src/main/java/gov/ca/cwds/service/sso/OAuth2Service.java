@@ -1,6 +1,5 @@
 package gov.ca.cwds.service.sso;
 
-import static gov.ca.cwds.util.Utils.deserialize;
 import static gov.ca.cwds.util.Utils.fromDate;
 
 import gov.ca.cwds.PerryProperties;
@@ -8,6 +7,8 @@ import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
 import gov.ca.cwds.rest.api.domain.PerryException;
 import gov.ca.cwds.service.TokenService;
 import gov.ca.cwds.service.sso.custom.OAuth2RequestHttpEntityFactory;
+import gov.ca.cwds.service.token.PerryTokenCodec;
+import gov.ca.cwds.util.JsonCodec;
 import gov.ca.cwds.util.Utils;
 import java.io.IOException;
 import java.io.Serializable;
@@ -36,7 +37,6 @@ import org.springframework.security.oauth2.client.token.grant.client.ClientCrede
 import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.stereotype.Service;
-import org.springframework.util.SerializationUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
@@ -59,6 +59,8 @@ public class OAuth2Service implements SsoService {
   private OAuth2RequestHttpEntityFactory httpEntityFactory;
   @Autowired
   private TokenService tokenService;
+  @Autowired
+  private PerryTokenCodec tokenCodec;
   protected ObjectMapper objectMapper;
 
   @PostConstruct
@@ -95,16 +97,20 @@ public class OAuth2Service implements SsoService {
   @Retryable(interceptor = "retryInterceptor", value = HttpClientErrorException.class)
   public void validate(PerryTokenEntity perryTokenEntity) {
     OAuth2ClientContext oAuth2ClientContext =
-        deserialize(perryTokenEntity.getSecurityContext());
+        tokenCodec.decodeSecurityContext(perryTokenEntity.getSecurityContext());
     Optional<PerryTokenEntity> refreshedToken;
     if (properties.getIdpValidateInterval() == 0) {
       refreshedToken = validateIdp(perryTokenEntity, oAuth2ClientContext);
       refreshedToken.ifPresent(tokenService::update);
     } else if (!validateLocal(perryTokenEntity, oAuth2ClientContext)) {
       refreshedToken = validateIdp(perryTokenEntity, oAuth2ClientContext);
-      PerryTokenEntity updated = refreshedToken.orElse(perryTokenEntity);
-      updated.setLastIdpValidateTime(new Date());
-      tokenService.update(updated);
+      if (refreshedToken.isPresent()) {
+        PerryTokenEntity updated = refreshedToken.get();
+        updated.setLastIdpValidateTime(new Date());
+        tokenService.update(updated);
+      } else {
+        tokenService.updateLastIdpValidateTime(perryTokenEntity, new Date());
+      }
     }
   }
 
@@ -188,8 +194,8 @@ public class OAuth2Service implements SsoService {
       PerryTokenEntity perryTokenEntity) {
     String freshAccessToken = freshContext.getAccessToken().getValue();
     if (!freshAccessToken.equals(perryTokenEntity.getSsoToken())) {
-      perryTokenEntity.setSsoToken(freshAccessToken);
-      perryTokenEntity.setSecurityContext(SerializationUtils.serialize(freshContext));
+      perryTokenEntity.setSsoToken(tokenCodec.encodeSsoToken(freshAccessToken));
+      perryTokenEntity.setSecurityContext(tokenCodec.encodeSecurityContext(freshContext));
       return Optional.of(perryTokenEntity);
     }
     return Optional.empty();
@@ -216,7 +222,7 @@ public class OAuth2Service implements SsoService {
       Class<T> clazz) {
     String response = doPost(restTemplate, url, accessToken);
     try {
-      return objectMapper.readValue(response, clazz);
+      return JsonCodec.read(response, clazz);
     } catch (IOException e) {
       throw new PerryException("url: " + url + ". error parsing response: " + response, e);
     }
@@ -6,6 +6,7 @@ import gov.ca.cwds.service.mfa.CognitoResponseService;
 import gov.ca.cwds.service.mfa.model.RefreshRequest;
 import gov.ca.cwds.service.mfa.model.RefreshResponse;
 import gov.ca.cwds.service.sso.OAuth2Service;
+import gov.ca.cwds.util.JsonCodec;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Optional;
@@ -49,7 +50,7 @@ public class CognitoSsoService extends OAuth2Service {
 
   private RefreshResponse refresh(RefreshRequest refreshRequest) {
     try {
-      String stringRequest = objectMapper.writeValueAsString(refreshRequest);
+      String stringRequest = JsonCodec.write(refreshRequest);
       HttpEntity<String> request = new HttpEntity<>(stringRequest, refreshHeaders());
       String response = restTemplate.exchange(
           resourceServerProperties.getUserInfoUri(),
@@ -57,7 +58,7 @@ public class CognitoSsoService extends OAuth2Service {
           request,
           String.class
       ).getBody();
-      return objectMapper.readValue(response, RefreshResponse.class);
+      return JsonCodec.read(response, RefreshResponse.class);
     } catch (IOException e) {
       throw new PerryException(e.getMessage(), e);
     }
@@ -3,7 +3,7 @@ package gov.ca.cwds.service.sso.custom.cognito;
 import java.io.IOException;
 import gov.ca.cwds.rest.api.domain.PerryException;
 import gov.ca.cwds.service.sso.custom.OAuth2RequestCustomizer;
-import org.codehaus.jackson.map.ObjectMapper;
+import gov.ca.cwds.util.JsonCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
@@ -17,12 +17,10 @@ import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
 @Service
 @Profile("cognito")
 public class CognitoUserInfoCustomizer extends OAuth2RequestCustomizer {
-  private ObjectMapper objectMapper;
 
   @Autowired
   public CognitoUserInfoCustomizer(@Value("${security.oauth2.resource.userInfoUri}") String url) {
     super(url);
-    objectMapper = new ObjectMapper();
   }
 
 
@@ -34,7 +32,7 @@ public class CognitoUserInfoCustomizer extends OAuth2RequestCustomizer {
     CognitoUserPoolRequest request = new CognitoUserPoolRequest();
     request.setAccessToken(accessToken);
     try {
-      String userPoolRequest = objectMapper.writeValueAsString(request);
+      String userPoolRequest = JsonCodec.write(request);
       return new HttpEntity<>(userPoolRequest, headers);
     } catch (IOException e) {
       throw new PerryException("Failed to prepare Cognito User Pool request", e);
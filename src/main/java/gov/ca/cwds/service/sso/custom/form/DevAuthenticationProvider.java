@@ -3,8 +3,8 @@ package gov.ca.cwds.service.sso.custom.form;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import gov.ca.cwds.PerryProperties;
 import gov.ca.cwds.UniversalUserToken;
+import gov.ca.cwds.util.JsonCodec;
 import org.apache.commons.lang3.StringUtils;
-import org.codehaus.jackson.map.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -38,8 +38,6 @@ public class DevAuthenticationProvider implements AuthenticationProvider {
   @Autowired
   PerryProperties perryProperties;
 
-  private ObjectMapper objectMapper = new ObjectMapper();
-
   @Override
   public Authentication authenticate(Authentication authentication) throws AuthenticationException {
     tryAuthenticate(authentication);
@@ -57,7 +55,7 @@ public class DevAuthenticationProvider implements AuthenticationProvider {
 
   private Map getUserInfo(String json) {
     try {
-      return  objectMapper.readValue(json, Map.class);
+      return JsonCodec.readMap(json);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
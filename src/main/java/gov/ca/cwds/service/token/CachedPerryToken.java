@@ -0,0 +1,60 @@
+package gov.ca.cwds.service.token;
+
+import gov.ca.cwds.UniversalUserToken;
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import java.util.Date;
+
+/**
+ * Immutable snapshot of a validated perry token entity along with the user token it carries. The
+ * snapshot is never handed out, callers get copies and change the cached token by putting a new
+ * snapshot.
+ */
+public class CachedPerryToken {
+
+  private final PerryTokenEntity perryTokenEntity;
+  private volatile UniversalUserToken universalUserToken;
+
+  private CachedPerryToken(PerryTokenEntity snapshot, UniversalUserToken universalUserToken) {
+    this.perryTokenEntity = snapshot;
+    this.universalUserToken = universalUserToken;
+  }
+
+  public static CachedPerryToken of(PerryTokenEntity perryTokenEntity) {
+    return new CachedPerryToken(new PerryTokenEntity(perryTokenEntity), null);
+  }
+
+  /**
+   * @return copy of the cached entity, free to be modified
+   */
+  public PerryTokenEntity getPerryTokenEntity() {
+    return new PerryTokenEntity(perryTokenEntity);
+  }
+
+  /**
+   * The JSON token of the snapshot is parsed on first call only.
+   *
+   * @return copy of the parsed user token, free to be modified
+   */
+  public UniversalUserToken getUniversalUserToken() {
+    UniversalUserToken parsed = universalUserToken;
+    if (parsed == null) {
+      parsed = UniversalUserToken.fromJson(perryTokenEntity.getJsonToken());
+      universalUserToken = parsed;
+    }
+    return UniversalUserToken.copyOf(parsed);
+  }
+
+  String getToken() {
+    return perryTokenEntity.getToken();
+  }
+
+  Date getLastUsedDate() {
+    return new Date(perryTokenEntity.getLastUsedDate().getTime());
+  }
+
+  CachedPerryToken withLastUsedDate(Date lastUsedDate) {
+    PerryTokenEntity snapshot = new PerryTokenEntity(perryTokenEntity);
+    snapshot.setLastUsedDate(lastUsedDate);
+    return new CachedPerryToken(snapshot, universalUserToken);
+  }
+}
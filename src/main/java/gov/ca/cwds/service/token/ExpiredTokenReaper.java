@@ -0,0 +1,140 @@
+package gov.ca.cwds.service.token;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.PerryProperties.TokenReaperConfiguration;
+import gov.ca.cwds.data.reissue.TokenStore;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.commons.lang3.time.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges token records which were not used for {@code perry.tokenRecordTimeout} minutes.
+ *
+ * <p>Runs every {@code perry.tokenReaper.interval} milliseconds and deletes expired records in
+ * chunks of {@code perry.tokenReaper.chunkSize} so that no single statement holds locks on a large
+ * range of the token table. Access codes older than {@code perry.jwt.timeout} minutes are
+ * reclaimed on the same schedule.</p>
+ */
+@Component
+public class ExpiredTokenReaper implements PublicMetrics {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ExpiredTokenReaper.class);
+
+  private static final String METRIC_PREFIX = "perry.token.reaper.";
+
+  private PerryProperties properties;
+  private TokenStore tokenStore;
+  private TokenWriteBehindBuffer writeBehindBuffer;
+  private ScheduledExecutorService executor;
+
+  private final AtomicLong runs = new AtomicLong();
+  private final AtomicLong totalPurged = new AtomicLong();
+  private final AtomicLong totalAccessCodesPurged = new AtomicLong();
+  private volatile long lastPurged;
+  private volatile long lastDuration;
+
+  @PostConstruct
+  public void init() {
+    TokenReaperConfiguration configuration = properties.getTokenReaper();
+    if (configuration.isEnabled()) {
+      executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expired-token-reaper");
+        thread.setDaemon(true);
+        return thread;
+      });
+      long interval = configuration.getInterval();
+      executor.scheduleWithFixedDelay(this::purgeQuietly, interval, interval,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * @return number of purged records
+   */
+  public synchronized int purge() {
+    long start = System.currentTimeMillis();
+    writeBehindBuffer.flush();
+    Date validLastUsedDate =
+        DateUtils.addMinutes(new Date(), -properties.getTokenRecordTimeout());
+    int chunkSize = properties.getTokenReaper().getChunkSize();
+    int purged = 0;
+    int deleted;
+    do {
+      deleted = tokenStore.deleteExpired(validLastUsedDate, chunkSize);
+      purged += deleted;
+    } while (deleted >= chunkSize);
+    int accessCodesPurged = tokenStore.deleteExpiredAccessCodes();
+
+    lastPurged = purged;
+    lastDuration = System.currentTimeMillis() - start;
+    runs.incrementAndGet();
+    totalPurged.addAndGet(purged);
+    totalAccessCodesPurged.addAndGet(accessCodesPurged);
+    LOGGER.info("Purged {} expired token records and {} expired access codes in {} ms", purged,
+        accessCodesPurged, lastDuration);
+    return purged;
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    List<Metric<?>> metrics = new ArrayList<>();
+    metrics.add(new Metric<>(METRIC_PREFIX + "runs", runs.get()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "purged", totalPurged.get()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "accessCodes.purged", totalAccessCodesPurged.get()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "lastRun.purged", lastPurged));
+    metrics.add(new Metric<>(METRIC_PREFIX + "lastRun.duration", lastDuration));
+    return metrics;
+  }
+
+  public long getLastPurged() {
+    return lastPurged;
+  }
+
+  public long getLastDuration() {
+    return lastDuration;
+  }
+
+  private void purgeQuietly() {
+    try {
+      purge();
+    } catch (Exception e) {
+      LOGGER.error("Expired token records are not purged", e);
+    }
+  }
+
+  @Autowired
+  public void setProperties(PerryProperties properties) {
+    this.properties = properties;
+  }
+
+  @Autowired
+  public void setTokenStore(TokenStore tokenStore) {
+    this.tokenStore = tokenStore;
+  }
+
+  @Autowired
+  public void setWriteBehindBuffer(TokenWriteBehindBuffer writeBehindBuffer) {
+    this.writeBehindBuffer = writeBehindBuffer;
+  }
+}
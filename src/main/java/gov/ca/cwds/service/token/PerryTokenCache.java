@@ -0,0 +1,134 @@
+package gov.ca.cwds.service.token;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.PerryProperties.TokenCacheConfiguration;
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import org.apache.commons.lang3.time.DateUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory cache of validated perry tokens keyed by perry token.
+ *
+ * <p>Entries live for {@code perry.tokenCache.expireAfterWrite} seconds at most and are never
+ * served after {@code perry.tokenRecordTimeout} minutes of inactivity, so the token store is
+ * consulted again before a cached token could outlive its record.</p>
+ *
+ * <p>The cache is local to the node: deleting a token invalidates it here only, other nodes keep
+ * accepting it until their entry expires, i.e. for up to {@code expireAfterWrite} seconds. That is
+ * why the cache is off by default in the clustered and production configurations.</p>
+ */
+@Component
+public class PerryTokenCache implements PublicMetrics {
+
+  private static final String METRIC_PREFIX = "perry.token.cache.";
+
+  private PerryProperties properties;
+  private Cache<String, CachedPerryToken> cache;
+  private final AtomicLong invalidations = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    TokenCacheConfiguration configuration = properties.getTokenCache();
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(configuration.getMaximumSize())
+        .expireAfterWrite(configuration.getExpireAfterWrite(), TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * @return snapshot of the cached token, {@code null} if it is not cached or its record expired
+   */
+  public CachedPerryToken get(String token) {
+    if (!isEnabled()) {
+      return null;
+    }
+    CachedPerryToken cachedToken = cache.getIfPresent(token);
+    if (cachedToken != null && isExpired(cachedToken.getLastUsedDate())) {
+      cache.invalidate(token);
+      return null;
+    }
+    return cachedToken;
+  }
+
+  /**
+   * Caches a snapshot of the entity, later changes of the entity are not seen by the cache.
+   */
+  public void put(PerryTokenEntity perryTokenEntity) {
+    put(CachedPerryToken.of(perryTokenEntity));
+  }
+
+  public void put(CachedPerryToken cachedToken) {
+    if (isEnabled()) {
+      cache.put(cachedToken.getToken(), cachedToken);
+    }
+  }
+
+  /**
+   * Replaces the cached snapshot with one having the given last used date, if the token is cached.
+   */
+  public void touch(String token, Date lastUsedDate) {
+    if (isEnabled()) {
+      cache.asMap().computeIfPresent(token,
+          (key, cachedToken) -> cachedToken.withLastUsedDate(lastUsedDate));
+    }
+  }
+
+  public void invalidate(String token) {
+    if (cache.asMap().remove(token) != null) {
+      invalidations.incrementAndGet();
+    }
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  public long getInvalidationCount() {
+    return invalidations.get();
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    CacheStats stats = cache.stats();
+    List<Metric<?>> metrics = new ArrayList<>();
+    metrics.add(new Metric<>(METRIC_PREFIX + "size", cache.size()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "hits", stats.hitCount()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "misses", stats.missCount()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "hitRate", stats.hitRate()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "evictions", stats.evictionCount()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "invalidations", invalidations.get()));
+    return metrics;
+  }
+
+  private boolean isEnabled() {
+    return properties.getTokenCache().isEnabled();
+  }
+
+  private boolean isExpired(Date lastUsedDate) {
+    Date expirationDate = DateUtils.addMinutes(lastUsedDate, properties.getTokenRecordTimeout());
+    return new Date().after(expirationDate);
+  }
+
+  @Autowired
+  public void setProperties(PerryProperties properties) {
+    this.properties = properties;
+  }
+}
@@ -0,0 +1,56 @@
+package gov.ca.cwds.service.token;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.PerryProperties.TokenCodecConfiguration;
+import gov.ca.cwds.data.reissue.model.CompressedColumn;
+import java.io.Serializable;
+import org.apache.commons.lang3.SerializationUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.client.OAuth2ClientContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodes perry token record columns according to {@code perry.tokenCodec} settings. Reading
+ * never depends on the settings, so they can be switched back and forth.
+ */
+@Component
+public class PerryTokenCodec {
+
+  private PerryProperties properties;
+
+  public byte[] encodeSecurityContext(Object securityContext) {
+    if (configuration().isCompactSecurityContext()
+        && SecurityContextCodec.isEncodable(securityContext)) {
+      return SecurityContextCodec.encode((OAuth2ClientContext) securityContext);
+    }
+    return SerializationUtils.serialize((Serializable) securityContext);
+  }
+
+  public <T> T decodeSecurityContext(byte[] securityContext) {
+    return SecurityContextCodec.decode(securityContext);
+  }
+
+  public String encodeJsonToken(String jsonToken) {
+    return configuration().isCompressJsonToken() ? compress(jsonToken) : jsonToken;
+  }
+
+  public String encodeSsoToken(String ssoToken) {
+    return configuration().isCompressSsoToken() ? compress(ssoToken) : ssoToken;
+  }
+
+  private String compress(String value) {
+    if (value == null || value.length() < configuration().getCompressionThreshold()) {
+      return value;
+    }
+    return CompressedColumn.compress(value);
+  }
+
+  private TokenCodecConfiguration configuration() {
+    return properties.getTokenCodec();
+  }
+
+  @Autowired
+  public void setProperties(PerryProperties properties) {
+    this.properties = properties;
+  }
+}
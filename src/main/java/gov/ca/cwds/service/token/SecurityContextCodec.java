@@ -0,0 +1,181 @@
+package gov.ca.cwds.service.token;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.SerializationUtils;
+import org.springframework.security.oauth2.client.DefaultOAuth2ClientContext;
+import org.springframework.security.oauth2.client.OAuth2ClientContext;
+import org.springframework.security.oauth2.client.token.DefaultAccessTokenRequest;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+
+/**
+ * Compact binary encoding of the OAuth2 client context stored with a perry token.
+ *
+ * <p>Only the access token is kept: value, type, expiration, scope, refresh token and additional
+ * information. The access token request is not needed once the user is logged in and is restored
+ * empty. Encoded data starts with a magic byte and a format version. Anything else is read with
+ * java serialization, so records written before this format are still readable.</p>
+ */
+public final class SecurityContextCodec {
+
+  private static final byte MAGIC = 0x50;
+  private static final byte VERSION_1 = 0x01;
+
+  private static final byte NO_REFRESH_TOKEN = 0;
+  private static final byte REFRESH_TOKEN = 1;
+  private static final byte EXPIRING_REFRESH_TOKEN = 2;
+
+  private static final long NO_EXPIRATION = -1;
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final TypeReference<Map<String, Object>> ADDITIONAL_INFORMATION_TYPE =
+      new TypeReference<Map<String, Object>>() {
+      };
+
+  private SecurityContextCodec() {
+  }
+
+  public static boolean isEncodable(Object securityContext) {
+    return securityContext instanceof OAuth2ClientContext
+        && ((OAuth2ClientContext) securityContext).getAccessToken() != null;
+  }
+
+  public static boolean isCompact(byte[] data) {
+    return data != null && data.length > 1 && data[0] == MAGIC;
+  }
+
+  public static byte[] encode(OAuth2ClientContext clientContext) {
+    OAuth2AccessToken accessToken = clientContext.getAccessToken();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(MAGIC);
+      out.writeByte(VERSION_1);
+      writeString(out, accessToken.getValue());
+      writeString(out, accessToken.getTokenType());
+      writeDate(out, accessToken.getExpiration());
+      Set<String> scope = accessToken.getScope() == null
+          ? Collections.emptySet() : accessToken.getScope();
+      out.writeInt(scope.size());
+      for (String value : scope) {
+        writeString(out, value);
+      }
+      writeRefreshToken(out, accessToken.getRefreshToken());
+      Map<String, Object> additionalInformation = accessToken.getAdditionalInformation();
+      writeString(out, additionalInformation == null || additionalInformation.isEmpty()
+          ? null : OBJECT_MAPPER.writeValueAsString(additionalInformation));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> T decode(byte[] data) {
+    if (!isCompact(data)) {
+      return (T) SerializationUtils.deserialize(data);
+    }
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+      in.readByte();
+      byte version = in.readByte();
+      if (version != VERSION_1) {
+        throw new IllegalStateException("Unsupported security context format: " + version);
+      }
+      DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(readString(in));
+      accessToken.setTokenType(readString(in));
+      accessToken.setExpiration(readDate(in));
+      int scopeSize = in.readInt();
+      Set<String> scope = new LinkedHashSet<>(scopeSize);
+      for (int i = 0; i < scopeSize; i++) {
+        scope.add(readString(in));
+      }
+      accessToken.setScope(scope);
+      accessToken.setRefreshToken(readRefreshToken(in));
+      String additionalInformation = readString(in);
+      if (additionalInformation != null) {
+        accessToken.setAdditionalInformation(
+            OBJECT_MAPPER.readValue(additionalInformation, ADDITIONAL_INFORMATION_TYPE));
+      }
+      DefaultOAuth2ClientContext clientContext =
+          new DefaultOAuth2ClientContext(new DefaultAccessTokenRequest());
+      clientContext.setAccessToken(accessToken);
+      return (T) clientContext;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeRefreshToken(DataOutputStream out, OAuth2RefreshToken refreshToken)
+      throws IOException {
+    if (refreshToken == null) {
+      out.writeByte(NO_REFRESH_TOKEN);
+    } else if (refreshToken instanceof ExpiringOAuth2RefreshToken) {
+      out.writeByte(EXPIRING_REFRESH_TOKEN);
+      writeString(out, refreshToken.getValue());
+      writeDate(out, ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration());
+    } else {
+      out.writeByte(REFRESH_TOKEN);
+      writeString(out, refreshToken.getValue());
+    }
+  }
+
+  private static OAuth2RefreshToken readRefreshToken(DataInputStream in) throws IOException {
+    byte type = in.readByte();
+    switch (type) {
+      case NO_REFRESH_TOKEN:
+        return null;
+      case REFRESH_TOKEN:
+        return new DefaultOAuth2RefreshToken(readString(in));
+      case EXPIRING_REFRESH_TOKEN:
+        return new DefaultExpiringOAuth2RefreshToken(readString(in), readDate(in));
+      default:
+        throw new IllegalStateException("Unsupported refresh token type: " + type);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private static void writeDate(DataOutputStream out, Date date) throws IOException {
+    out.writeLong(date == null ? NO_EXPIRATION : date.getTime());
+  }
+
+  private static Date readDate(DataInputStream in) throws IOException {
+    long time = in.readLong();
+    return time == NO_EXPIRATION ? null : new Date(time);
+  }
+}
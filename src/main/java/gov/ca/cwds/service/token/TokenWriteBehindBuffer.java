@@ -0,0 +1,216 @@
+package gov.ca.cwds.service.token;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.PerryProperties.TokenWriteBehindConfiguration;
+import gov.ca.cwds.data.reissue.TokenStore;
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind buffer for perry token touch updates.
+ *
+ * <p>Token validation only moves {@code last_used_date} and {@code last_idp_validate_time}
+ * forward, so touches are coalesced per token in memory and written to the token store in
+ * batches every {@code perry.tokenWriteBehind.flushInterval} milliseconds or as soon as
+ * {@code perry.tokenWriteBehind.batchSize} tokens are pending. Stored values are never moved
+ * backwards. Records read from the token store must go through {@link #apply(PerryTokenEntity)}
+ * so that expiry checks see touches which are not flushed yet.</p>
+ */
+@Component
+public class TokenWriteBehindBuffer implements PublicMetrics {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TokenWriteBehindBuffer.class);
+
+  private static final String METRIC_PREFIX = "perry.token.writeBehind.";
+
+  private PerryProperties properties;
+  private TokenStore tokenStore;
+  private ScheduledExecutorService executor;
+
+  private final ConcurrentMap<String, TokenTouch> pending = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, TokenTouch> inFlight = new ConcurrentHashMap<>();
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+  private final Object flushLock = new Object();
+
+  private final AtomicLong touches = new AtomicLong();
+  private final AtomicLong updates = new AtomicLong();
+  private final AtomicLong flushes = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    TokenWriteBehindConfiguration configuration = properties.getTokenWriteBehind();
+    if (configuration.isEnabled()) {
+      executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-write-behind");
+        thread.setDaemon(true);
+        return thread;
+      });
+      long flushInterval = configuration.getFlushInterval();
+      executor.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+    flushQuietly();
+  }
+
+  public void touch(String token, Date lastUsedDate) {
+    add(token, new TokenTouch(lastUsedDate, null));
+  }
+
+  public void touchIdpValidateTime(String token, Date lastIdpValidateTime) {
+    add(token, new TokenTouch(null, lastIdpValidateTime));
+  }
+
+  /**
+   * Brings the dates of a record read from the token store up to date with the pending touches.
+   */
+  public void apply(PerryTokenEntity perryTokenEntity) {
+    apply(perryTokenEntity, inFlight.get(perryTokenEntity.getToken()));
+    apply(perryTokenEntity, pending.get(perryTokenEntity.getToken()));
+  }
+
+  public void discard(String token) {
+    pending.remove(token);
+  }
+
+  /**
+   * Writes all pending touches to the token store.
+   *
+   * @return number of tokens written
+   */
+  public int flush() {
+    synchronized (flushLock) {
+      flushRequested.set(false);
+      for (String token : pending.keySet()) {
+        TokenTouch touch = pending.remove(token);
+        if (touch != null) {
+          inFlight.put(token, touch);
+        }
+      }
+      if (inFlight.isEmpty()) {
+        return 0;
+      }
+      try {
+        Map<String, Date> lastUsedDates = new HashMap<>();
+        Map<String, Date> lastIdpValidateTimes = new HashMap<>();
+        for (Map.Entry<String, TokenTouch> entry : inFlight.entrySet()) {
+          putDate(lastUsedDates, entry.getKey(), entry.getValue().lastUsedDate);
+          putDate(lastIdpValidateTimes, entry.getKey(), entry.getValue().lastIdpValidateTime);
+        }
+        tokenStore.updateLastUsedDates(lastUsedDates);
+        tokenStore.updateLastIdpValidateTimes(lastIdpValidateTimes);
+        updates.addAndGet(lastUsedDates.size() + lastIdpValidateTimes.size());
+        flushes.incrementAndGet();
+        return inFlight.size();
+      } catch (RuntimeException e) {
+        inFlight.forEach((token, touch) -> pending.merge(token, touch, TokenTouch::merge));
+        throw e;
+      } finally {
+        inFlight.clear();
+      }
+    }
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    List<Metric<?>> metrics = new ArrayList<>();
+    metrics.add(new Metric<>(METRIC_PREFIX + "pending", pending.size()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "touches", touches.get()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "updates", updates.get()));
+    metrics.add(new Metric<>(METRIC_PREFIX + "flushes", flushes.get()));
+    return metrics;
+  }
+
+  private void add(String token, TokenTouch touch) {
+    touches.incrementAndGet();
+    pending.merge(token, touch, TokenTouch::merge);
+    if (executor == null || !properties.getTokenWriteBehind().isEnabled()) {
+      flush();
+    } else if (pending.size() >= properties.getTokenWriteBehind().getBatchSize()
+        && flushRequested.compareAndSet(false, true)) {
+      executor.execute(this::flushQuietly);
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (Exception e) {
+      LOGGER.error("Token touch updates are not flushed", e);
+    }
+  }
+
+  private static void putDate(Map<String, Date> dates, String token, Date date) {
+    if (date != null) {
+      dates.put(token, date);
+    }
+  }
+
+  private static void apply(PerryTokenEntity perryTokenEntity, TokenTouch touch) {
+    if (touch != null) {
+      perryTokenEntity.setLastUsedDate(
+          TokenTouch.latest(perryTokenEntity.getLastUsedDate(), touch.lastUsedDate));
+      perryTokenEntity.setLastIdpValidateTime(
+          TokenTouch.latest(perryTokenEntity.getLastIdpValidateTime(), touch.lastIdpValidateTime));
+    }
+  }
+
+  @Autowired
+  public void setProperties(PerryProperties properties) {
+    this.properties = properties;
+  }
+
+  @Autowired
+  public void setTokenStore(TokenStore tokenStore) {
+    this.tokenStore = tokenStore;
+  }
+
+  private static final class TokenTouch {
+
+    private final Date lastUsedDate;
+    private final Date lastIdpValidateTime;
+
+    private TokenTouch(Date lastUsedDate, Date lastIdpValidateTime) {
+      this.lastUsedDate = lastUsedDate;
+      this.lastIdpValidateTime = lastIdpValidateTime;
+    }
+
+    private static TokenTouch merge(TokenTouch first, TokenTouch second) {
+      return new TokenTouch(latest(first.lastUsedDate, second.lastUsedDate),
+          latest(first.lastIdpValidateTime, second.lastIdpValidateTime));
+    }
+
+    private static Date latest(Date first, Date second) {
+      if (first == null) {
+        return second;
+      }
+      return second == null || first.after(second) ? first : second;
+    }
+  }
+}
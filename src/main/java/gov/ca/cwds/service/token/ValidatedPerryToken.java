@@ -0,0 +1,36 @@
+package gov.ca.cwds.service.token;
+
+import gov.ca.cwds.UniversalUserToken;
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import java.io.Serializable;
+
+/**
+ * Result of a single perry token validation: the token record along with the user token it
+ * carries.
+ */
+public class ValidatedPerryToken {
+
+  private final PerryTokenEntity perryTokenEntity;
+  private final UniversalUserToken universalUserToken;
+
+  public ValidatedPerryToken(PerryTokenEntity perryTokenEntity,
+      UniversalUserToken universalUserToken) {
+    this.perryTokenEntity = perryTokenEntity;
+    this.universalUserToken = universalUserToken;
+  }
+
+  public PerryTokenEntity getPerryTokenEntity() {
+    return perryTokenEntity;
+  }
+
+  public UniversalUserToken getUniversalUserToken() {
+    return universalUserToken;
+  }
+
+  /**
+   * Deserializes a fresh copy of the stored security context, callers are free to modify it.
+   */
+  public Serializable getSecurityContext() {
+    return SecurityContextCodec.decode(perryTokenEntity.getSecurityContext());
+  }
+}
@@ -0,0 +1,54 @@
+package gov.ca.cwds.util;
+
+import gov.ca.cwds.UniversalUserToken;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+import org.codehaus.jackson.map.ObjectWriter;
+
+/**
+ * Shared JSON codec.
+ *
+ * <p>Object mapper construction and type resolution are expensive, so a single pre-configured
+ * mapper is used and readers are built once per type. Readers and writers are immutable and
+ * thread safe.</p>
+ */
+public final class JsonCodec {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final ObjectWriter WRITER = MAPPER.writer();
+  private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+  private static final ObjectReader USER_TOKEN_READER = reader(UniversalUserToken.class);
+  private static final ObjectReader MAP_READER = reader(Map.class);
+
+  private JsonCodec() {
+  }
+
+  public static ObjectReader reader(Class<?> type) {
+    return READERS.computeIfAbsent(type, MAPPER::reader);
+  }
+
+  public static ObjectWriter writer() {
+    return WRITER;
+  }
+
+  public static <T> T read(String json, Class<T> type) throws IOException {
+    return reader(type).readValue(json);
+  }
+
+  public static UniversalUserToken readUserToken(String json) throws IOException {
+    return USER_TOKEN_READER.readValue(json);
+  }
+
+  public static Map readMap(String json) throws IOException {
+    return MAP_READER.readValue(json);
+  }
+
+  public static String write(Object value) throws IOException {
+    return WRITER.writeValueAsString(value);
+  }
+}
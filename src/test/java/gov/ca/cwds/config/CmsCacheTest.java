@@ -0,0 +1,158 @@
+package gov.ca.cwds.config;
+
+import static gov.ca.cwds.config.CMSConfiguration.CMS_READ_ONLY_TRANSACTION_MANAGER;
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.data.persistence.auth.CwsOffice;
+import gov.ca.cwds.idm.dto.Office;
+import gov.ca.cwds.idm.persistence.cwscms.repository.OfficeRepository;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.mvc.EndpointHandlerMapping;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("idm")
+@SpringBootTest(
+    classes = CmsCacheTest.CmsCacheTestConfiguration.class,
+    properties = {
+        "perry.cmsCache.enabled=true",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:cms_cache;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database=h2",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+    }
+)
+public class CmsCacheTest {
+
+  private static final String OFFICE_REGION = CwsOffice.class.getName();
+  private static final String QUERY_REGION = "org.hibernate.cache.internal.StandardQueryCache";
+
+  @Autowired
+  private WebApplicationContext webApplicationContext;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CmsCacheRegionFactory regionFactory;
+
+  @Autowired
+  private OfficeRepository officeRepository;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  @Qualifier(CMS_READ_ONLY_TRANSACTION_MANAGER)
+  private PlatformTransactionManager transactionManager;
+
+  private MockMvc mockMvc;
+
+  @Before
+  public void before() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.update("DELETE FROM CWS_OFFT");
+    jdbcTemplate.update("DELETE FROM SYS_CD_C");
+    jdbcTemplate.update("INSERT INTO SYS_CD_C (SYS_ID, FKS_META_T, SHORT_DSC, INACTV_IND)"
+        + " VALUES (1101, 'GVR_ENTC', 'Sacramento', 'N')");
+    jdbcTemplate.update("INSERT INTO CWS_OFFT"
+        + " (IDENTIFIER, GVR_ENTC, CWS_OFF_NM, CNTY_SPFCD, INACTV_IND)"
+        + " VALUES ('OFFICE0001', 1101, 'Office', '34', 'N')");
+  }
+
+  @Test
+  public void testOfficeIsLoadedFromCache() {
+    long hits = statistics(OFFICE_REGION, "hits");
+    assertEquals("Office", findOffice().getCwsOfficeName().trim());
+    assertEquals("Office", findOffice().getCwsOfficeName().trim());
+    assertEquals(hits + 1, statistics(OFFICE_REGION, "hits"));
+  }
+
+  @Test
+  public void testOfficesAreLoadedFromQueryCache() {
+    long hits = statistics(QUERY_REGION, "hits");
+    assertEquals(1, findOffices().size());
+    List<Office> offices = findOffices();
+    assertEquals(1, offices.size());
+    assertEquals("OFFICE0001", offices.get(0).getOfficeId());
+    assertEquals(hits + 1, statistics(QUERY_REGION, "hits"));
+  }
+
+  @Test
+  public void testFlush() throws Exception {
+    findOffice();
+    findOffices();
+    assertEquals(1, statistics(OFFICE_REGION, "size"));
+    assertEquals(1, statistics(QUERY_REGION, "size"));
+
+    mockMvc.perform(post("/manage/cms-cache/flush")).andExpect(status().isOk());
+
+    regionFactory.getRegionStatistics().forEach((regionName, region) ->
+        assertEquals(regionName, 0L, region.get("size").longValue()));
+  }
+
+  private CwsOffice findOffice() {
+    return new TransactionTemplate(transactionManager).execute(status ->
+        EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+            .find(CwsOffice.class, "OFFICE0001"));
+  }
+
+  private List<Office> findOffices() {
+    return new TransactionTemplate(transactionManager)
+        .execute(status -> officeRepository.findOffices());
+  }
+
+  private long statistics(String regionName, String name) {
+    Map<String, Long> region = regionFactory.getRegionStatistics()
+        .getOrDefault(regionName, Collections.emptyMap());
+    return region.getOrDefault(name, 0L);
+  }
+
+  /**
+   * CWS/CMS slice of the application with the management endpoint of the cache.
+   */
+  @Configuration
+  @EnableWebMvc
+  @EnableConfigurationProperties(PerryProperties.class)
+  @Import(CMSConfiguration.class)
+  static class CmsCacheTestConfiguration {
+
+    @Bean
+    public EndpointHandlerMapping endpointHandlerMapping(CmsCacheEndpoint cmsCacheEndpoint) {
+      EndpointHandlerMapping mapping =
+          new EndpointHandlerMapping(Collections.singleton(cmsCacheEndpoint));
+      mapping.setPrefix("/manage");
+      return mapping;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package gov.ca.cwds.config.api.common;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.UniversalUserToken;
+import gov.ca.cwds.data.reissue.TokenStore;
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import gov.ca.cwds.service.LoginServiceImpl;
+import gov.ca.cwds.service.TokenService;
+import gov.ca.cwds.service.sso.SsoService;
+import gov.ca.cwds.service.token.PerryTokenCache;
+import gov.ca.cwds.service.token.PerryTokenCodec;
+import gov.ca.cwds.service.token.TokenWriteBehindBuffer;
+import java.util.Date;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+public class SpApiAuthenticationProviderTest {
+
+  private static final String PERRY_TOKEN = "perryToken";
+
+  private TokenStore tokenStore;
+  private SsoService ssoService;
+  private SpApiAuthenticationProvider authenticationProvider;
+
+  @Before
+  public void before() {
+    PerryProperties properties = new PerryProperties();
+    properties.setTokenRecordTimeout(10);
+    properties.getTokenCache().setEnabled(false);
+    PerryTokenCache tokenCache = new PerryTokenCache();
+    tokenCache.setProperties(properties);
+    tokenCache.init();
+
+    tokenStore = mock(TokenStore.class);
+    when(tokenStore.findByToken(PERRY_TOKEN)).thenAnswer(invocation -> perryTokenEntity());
+
+    TokenService tokenService = new TokenService();
+    tokenService.setProperties(properties);
+    tokenService.setTokenStore(tokenStore);
+    tokenService.setTokenCache(tokenCache);
+    tokenService.setWriteBehindBuffer(mock(TokenWriteBehindBuffer.class));
+    PerryTokenCodec tokenCodec = new PerryTokenCodec();
+    tokenCodec.setProperties(properties);
+    tokenService.setTokenCodec(tokenCodec);
+
+    ssoService = mock(SsoService.class);
+    LoginServiceImpl loginService = new LoginServiceImpl();
+    loginService.setTokenService(tokenService);
+    loginService.setSsoService(ssoService);
+
+    authenticationProvider = new SpApiAuthenticationProvider();
+    authenticationProvider.setLoginService(loginService);
+  }
+
+  @Test
+  public void testTokenIsLoadedOnce() {
+    Authentication authentication = authenticationProvider
+        .authenticate(new PreAuthenticatedAuthenticationToken(PERRY_TOKEN, null));
+
+    verify(tokenStore, times(1)).findByToken(PERRY_TOKEN);
+    verify(ssoService, times(1)).validate((PerryTokenEntity) authentication.getDetails());
+    UniversalUserToken userToken = (UniversalUserToken) authentication.getPrincipal();
+    assert userToken.getUserId().equals("userId");
+    assert "securityContext".equals(authentication.getCredentials());
+    assert authentication.getAuthorities().stream()
+        .anyMatch(authority -> authority.getAuthority().equals("SP_API_CLIENT"));
+    assert authentication.getAuthorities().stream()
+        .anyMatch(authority -> authority.getAuthority().equals("role"));
+  }
+
+  private static PerryTokenEntity perryTokenEntity() {
+    PerryTokenEntity perryTokenEntity = new PerryTokenEntity();
+    perryTokenEntity.setToken(PERRY_TOKEN);
+    perryTokenEntity.setUser("userId");
+    perryTokenEntity.setJsonToken("{\"user\": \"userId\", \"roles\": [\"role\"]}");
+    perryTokenEntity.setSecurityContext(SerializationUtils.serialize("securityContext"));
+    perryTokenEntity.setLastUsedDate(new Date());
+    return perryTokenEntity;
+  }
+}
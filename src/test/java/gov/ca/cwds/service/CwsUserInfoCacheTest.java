@@ -0,0 +1,117 @@
+package gov.ca.cwds.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.data.auth.UserIdDao;
+import gov.ca.cwds.service.dto.CwsUserInfo;
+import gov.ca.cwds.service.dto.CwsUserProjection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class CwsUserInfoCacheTest {
+
+  private PerryProperties properties;
+  private UserIdDao userIdDao;
+  private CwsUserInfoCache cwsUserInfoCache;
+  private CwsUserInfoService cwsUserInfoService;
+
+  @Before
+  public void before() {
+    properties = new PerryProperties();
+    cwsUserInfoCache = new CwsUserInfoCache();
+    cwsUserInfoCache.setProperties(properties);
+    cwsUserInfoCache.init();
+
+    userIdDao = Mockito.mock(UserIdDao.class);
+    cwsUserInfoService = new CwsUserInfoService();
+    cwsUserInfoService.setUserIdDao(userIdDao);
+    cwsUserInfoService.setCwsUserInfoCache(cwsUserInfoCache);
+  }
+
+  @Test
+  public void testHitAndMiss() {
+    Mockito.when(userIdDao.findActiveProjectionsByLogonIdIn(Mockito.anyCollection()))
+        .thenReturn(Collections.singletonList(user("ABC")));
+
+    assertEquals("ABC", cwsUserInfoService.getCwsUserByRacfId("abc").getRacfId());
+    assertEquals("ABC", cwsUserInfoService.getCwsUserByRacfId("ABC").getRacfId());
+
+    Mockito.verify(userIdDao, Mockito.times(1))
+        .findActiveProjectionsByLogonIdIn(Mockito.anyCollection());
+    assertEquals(1L, metric("hits"));
+    assertEquals(1L, metric("misses"));
+  }
+
+  @Test
+  public void testOnlyMissesAreLoaded() {
+    Mockito.when(userIdDao.findActiveProjectionsByLogonIdIn(Mockito.anyCollection()))
+        .thenReturn(Collections.singletonList(user("ABC")))
+        .thenReturn(Collections.singletonList(user("DEF")));
+    cwsUserInfoService.getCwsUserByRacfId("ABC");
+
+    List<CwsUserInfo> users = cwsUserInfoService.findUsers(Arrays.asList("ABC", "DEF", "GHI"));
+
+    List<String> racfIds = new ArrayList<>();
+    users.forEach(user -> racfIds.add(user.getRacfId()));
+    assertTrue(racfIds.containsAll(Arrays.asList("ABC", "DEF")));
+    assertEquals(2, racfIds.size());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Collection<String>> captor = ArgumentCaptor.forClass(Collection.class);
+    Mockito.verify(userIdDao, Mockito.times(2))
+        .findActiveProjectionsByLogonIdIn(captor.capture());
+    assertEquals(Arrays.asList("DEF", "GHI"), new ArrayList<>(captor.getValue()));
+  }
+
+  @Test
+  public void testNegativeCaching() {
+    Mockito.when(userIdDao.findActiveProjectionsByLogonIdIn(Mockito.anyCollection()))
+        .thenReturn(Collections.emptyList());
+
+    assertNull(cwsUserInfoService.getCwsUserByRacfId("ABC"));
+    assertNull(cwsUserInfoService.getCwsUserByRacfId("ABC"));
+    Mockito.verify(userIdDao, Mockito.times(1))
+        .findActiveProjectionsByLogonIdIn(Mockito.anyCollection());
+    assertEquals(1L, metric("negativeHits"));
+
+    properties.getCwsUserCache().setNegativeExpireAfterWrite(0);
+    assertNull(cwsUserInfoService.getCwsUserByRacfId("ABC"));
+    Mockito.verify(userIdDao, Mockito.times(2))
+        .findActiveProjectionsByLogonIdIn(Mockito.anyCollection());
+  }
+
+  @Test
+  public void testDisabled() {
+    properties.getCwsUserCache().setEnabled(false);
+    Mockito.when(userIdDao.findActiveProjectionsByLogonIdIn(Mockito.anyCollection()))
+        .thenReturn(Collections.singletonList(user("ABC")));
+
+    cwsUserInfoService.getCwsUserByRacfId("ABC");
+    cwsUserInfoService.getCwsUserByRacfId("ABC");
+
+    Mockito.verify(userIdDao, Mockito.times(2))
+        .findActiveProjectionsByLogonIdIn(Mockito.anyCollection());
+    assertEquals(0L, metric("size"));
+  }
+
+  private long metric(String name) {
+    return cwsUserInfoCache.metrics().stream()
+        .filter(metric -> metric.getName().endsWith("." + name))
+        .findFirst().get().getValue().longValue();
+  }
+
+  private static CwsUserProjection user(String racfId) {
+    return new CwsUserProjection(racfId, "id" + racfId, null, null, null, null, null, null, null,
+        null, null, null, null, null, null);
+  }
+}
@@ -1,16 +1,25 @@
 package gov.ca.cwds.service;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import gov.ca.cwds.data.auth.UserIdDao;
 import gov.ca.cwds.data.persistence.auth.CwsOffice;
 import gov.ca.cwds.data.persistence.auth.StaffPerson;
 import gov.ca.cwds.data.persistence.auth.UserId;
 import gov.ca.cwds.service.dto.CwsUserInfo;
+import gov.ca.cwds.service.dto.CwsUserProjection;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class CwsUserInfoServiceTest {
@@ -40,81 +49,12 @@ public class CwsUserInfoServiceTest {
 
     List<String> keys = Arrays.asList("123", "wqeq", "shuirheuiwyer8876384242342", "5bb");
 
-    String racfid1 = "123";
-    UserId userId1 = new UserId(null, null, null, "id1", racfid1, null);
-
-    String racfid2 = "wqeq";
-    UserId userId2 = new UserId(null, null, null, "id2", racfid2, null);
-
-    String racfid3 = "5bb";
-    UserId userId3 = new UserId(null, null, null, "id3", racfid3, null);
-
-    CwsOffice cwsOffice1 =
-        new CwsOffice(
-            CWS_OFFICE_ID_1,
-            null,
-            null,
-            COUNTY_CWS_CODE,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            COUNTY_CODE,
-            null,
-            null,
-            null);
-
-    CwsOffice cwsOffice2 =
-        new CwsOffice(
-            CWS_OFFICE_ID_2,
-            null,
-            null,
-            COUNTY_CWS_CODE,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            null,
-            COUNTY_CODE,
-            null,
-            null,
-            null);
-
-
-    StaffPerson staffPerson1 = new StaffPerson();
-    staffPerson1.setId(STAFF_ID_1);
-    staffPerson1.setOffice(cwsOffice1);
-
-    StaffPerson staffPerson2 = new StaffPerson();
-    staffPerson2.setId(STAFF_ID_2);
-    staffPerson2.setOffice(cwsOffice2);
-
-    StaffPerson staffPerson3 = new StaffPerson();
-    staffPerson3.setId(STAFF_ID_3);
-
-    userId1.setStaffPerson(staffPerson1);
-    userId2.setStaffPerson(staffPerson2);
-    userId3.setStaffPerson(staffPerson3);
-
-    Mockito.when(userIdDao.findActiveByLogonIdIn(Mockito.anyCollection()))
-        .thenReturn(new HashSet<>(Arrays.asList(userId1, userId2, userId3)));
+    CwsUserProjection user1 = projection("123", STAFF_ID_1, CWS_OFFICE_ID_1);
+    CwsUserProjection user2 = projection("wqeq", STAFF_ID_2, CWS_OFFICE_ID_2);
+    CwsUserProjection user3 = projection("5bb", STAFF_ID_3, null);
+
+    Mockito.when(userIdDao.findActiveProjectionsByLogonIdIn(Mockito.anyCollection()))
+        .thenReturn(Arrays.asList(user1, user2, user3));
 
     List<CwsUserInfo> result = cwsUserInfoService.findUsers(keys);
 
@@ -146,4 +86,75 @@ public class CwsUserInfoServiceTest {
 
     assert result.size() == 0;
   }
+
+  @Test
+  public void composeForUserAuthorizationBulkTest() {
+    List<String> keys = Arrays.asList("ABC", "DEF", "GHI", "shuirheuiwyer8876384242342");
+
+    UserId userId1 = new UserId(null, null, null, "id1", "ABC", null);
+    UserId userId2 = new UserId(null, null, null, "id2", "DEF", null);
+    userId1.setPrivileges(new HashSet<>());
+    userId2.setPrivileges(new HashSet<>());
+    userId1.setStaffPerson(staffPerson(STAFF_ID_1));
+    userId2.setStaffPerson(staffPerson(STAFF_ID_2));
+
+    Mockito.when(userIdDao.findActiveWithPrivilegesByLogonIdIn(Mockito.anyCollection()))
+        .thenReturn(Arrays.asList(userId1, userId2));
+    Mockito.when(userIdDao.findStaffPersonsWithAssignments(Mockito.anyCollection()))
+        .thenReturn(Collections.singletonList(STAFF_ID_1));
+
+    Map<String, CwsUserInfo> result = cwsUserInfoService.composeForUserAuthorization(keys);
+
+    assertEquals(2, result.size());
+    assertTrue(result.get("ABC").getHasAssignments());
+    assertFalse(result.get("DEF").getHasAssignments());
+    assertEquals(STAFF_ID_2, result.get("DEF").getStaffPerson().getId());
+    Mockito.verify(userIdDao, Mockito.times(1))
+        .findActiveWithPrivilegesByLogonIdIn(Mockito.anyCollection());
+    Mockito.verify(userIdDao, Mockito.times(1))
+        .findStaffPersonsWithUnitAuthorities(Mockito.anyCollection());
+    Mockito.verify(userIdDao, Mockito.times(1))
+        .findStaffPersonsWithAssignments(Mockito.anyCollection());
+    Mockito.verify(userIdDao, Mockito.never()).findAnyAssignment(Mockito.anyString());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void composeForUserAuthorizationUpperCasesRacfIds() {
+    cwsUserInfoService.composeForUserAuthorization(Arrays.asList("abc ", "ABC", "Def"));
+
+    ArgumentCaptor<Collection<String>> racfIds = ArgumentCaptor.forClass(Collection.class);
+    Mockito.verify(userIdDao).findActiveWithPrivilegesByLogonIdIn(racfIds.capture());
+    assertEquals(Arrays.asList("ABC", "DEF"), new ArrayList<>(racfIds.getValue()));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void composeForUserAuthorizationInChunks() {
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 2 * CwsUserInfoService.RACFID_CHUNK_SIZE + 1; i++) {
+      keys.add("U" + i);
+    }
+    cwsUserInfoService.composeForUserAuthorization(keys);
+
+    ArgumentCaptor<Collection<String>> racfIds = ArgumentCaptor.forClass(Collection.class);
+    Mockito.verify(userIdDao, Mockito.times(3))
+        .findActiveWithPrivilegesByLogonIdIn(racfIds.capture());
+    assertEquals(CwsUserInfoService.RACFID_CHUNK_SIZE, racfIds.getAllValues().get(0).size());
+    assertEquals(1, racfIds.getAllValues().get(2).size());
+  }
+
+  private static StaffPerson staffPerson(String id) {
+    StaffPerson staffPerson = new StaffPerson();
+    staffPerson.setId(id);
+    staffPerson.setUnitAuthorities(new HashSet<>());
+    staffPerson.setOffice(new CwsOffice());
+    return staffPerson;
+  }
+
+  private static CwsUserProjection projection(String racfId, String staffId, String officeId) {
+    return new CwsUserProjection(racfId, staffId, null, null, null, null, null, null, null,
+        officeId, null, officeId == null ? null : COUNTY_CWS_CODE, null, null,
+        officeId == null ? null : COUNTY_CODE);
+  }
 }
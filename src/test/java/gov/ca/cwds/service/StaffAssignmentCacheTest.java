@@ -0,0 +1,76 @@
+package gov.ca.cwds.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.data.auth.UserIdDao;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+public class StaffAssignmentCacheTest {
+
+  private static final String STAFF_ID = "0Sr";
+
+  private PerryProperties properties;
+  private UserIdDao userIdDao;
+  private StaffAssignmentCache staffAssignmentCache;
+
+  @Before
+  public void before() {
+    properties = new PerryProperties();
+    userIdDao = Mockito.mock(UserIdDao.class);
+    staffAssignmentCache = new StaffAssignmentCache();
+    staffAssignmentCache.setProperties(properties);
+    staffAssignmentCache.setUserIdDao(userIdDao);
+    staffAssignmentCache.init();
+  }
+
+  @After
+  public void after() {
+    staffAssignmentCache.destroy();
+  }
+
+  @Test
+  public void testFlagIsCached() {
+    Mockito.when(userIdDao.findAnyAssignment(STAFF_ID)).thenReturn(Collections.singletonList(1));
+    Mockito.when(userIdDao.findAnyAssignment("75D")).thenReturn(Collections.emptyList());
+
+    assertTrue(staffAssignmentCache.hasAssignments(STAFF_ID));
+    assertTrue(staffAssignmentCache.hasAssignments(STAFF_ID));
+    assertFalse(staffAssignmentCache.hasAssignments("75D"));
+
+    Mockito.verify(userIdDao, Mockito.times(1)).findAnyAssignment(STAFF_ID);
+    assertEquals(2L, metric("checks"));
+    assertEquals(1L, metric("cache.hits"));
+  }
+
+  @Test
+  public void testDisabled() {
+    properties.getStaffAssignmentCache().setEnabled(false);
+    Mockito.when(userIdDao.findAnyAssignment(STAFF_ID)).thenReturn(Collections.emptyList());
+
+    assertFalse(staffAssignmentCache.hasAssignments(STAFF_ID));
+    assertFalse(staffAssignmentCache.hasAssignments(STAFF_ID));
+
+    Mockito.verify(userIdDao, Mockito.times(2)).findAnyAssignment(STAFF_ID);
+  }
+
+  @Test(expected = DataAccessResourceFailureException.class)
+  public void testFailureIsNotWrapped() {
+    Mockito.when(userIdDao.findAnyAssignment(STAFF_ID))
+        .thenThrow(new DataAccessResourceFailureException("CWS/CMS is down"));
+    staffAssignmentCache.hasAssignments(STAFF_ID);
+  }
+
+  private long metric(String name) {
+    return staffAssignmentCache.metrics().stream()
+        .filter(metric -> metric.getName().endsWith("." + name))
+        .findFirst().get().getValue().longValue();
+  }
+}
@@ -2,10 +2,15 @@ package gov.ca.cwds.service;
 
 import gov.ca.cwds.PerryProperties;
 import gov.ca.cwds.UniversalUserToken;
+import gov.ca.cwds.data.reissue.AccessCodeRepository;
 import gov.ca.cwds.data.reissue.TokenRepository;
+import gov.ca.cwds.data.reissue.model.PerryAccessCodeEntity;
 import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
 import gov.ca.cwds.rest.api.domain.PerryException;
 import gov.ca.cwds.security.jwt.JwtConfiguration;
+import gov.ca.cwds.service.token.ExpiredTokenReaper;
+import gov.ca.cwds.service.token.PerryTokenCache;
+import gov.ca.cwds.service.token.TokenWriteBehindBuffer;
 import java.util.Date;
 import java.util.function.Supplier;
 import org.apache.commons.lang3.time.DateUtils;
@@ -23,8 +28,8 @@ import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
-import org.springframework.transaction.TransactionSystemException;
 import org.springframework.transaction.annotation.Transactional;
 
 @RunWith(SpringRunner.class)
@@ -33,11 +38,17 @@ import org.springframework.transaction.annotation.Transactional;
 )
 @DirtiesContext
 @ActiveProfiles("dev")
+@TestPropertySource(properties = {"perry.tokenWriteBehind.flushInterval=600000",
+    "perry.tokenReaper.enabled=false"})
 public class TokenServiceTest {
 
   @Autowired private TokenService tokenService;
   @Autowired private PerryProperties properties;
   @Autowired TokenRepository tokenRepository;
+  @Autowired AccessCodeRepository accessCodeRepository;
+  @Autowired private PerryTokenCache tokenCache;
+  @Autowired private TokenWriteBehindBuffer writeBehindBuffer;
+  @Autowired private ExpiredTokenReaper tokenReaper;
 
   @MockBean private HealthEndpoint healthEndpoint;
 
@@ -53,6 +64,9 @@ public class TokenServiceTest {
     jwtConfiguration.setTimeout(10);
     properties.setJwt(jwtConfiguration);
     tokenRepository.deleteAll();
+    accessCodeRepository.deleteAll();
+    tokenCache.invalidateAll();
+    writeBehindBuffer.flush();
   }
 
   @Test
@@ -63,13 +77,44 @@ public class TokenServiceTest {
     assert perryTokenEntity != null;
     assert perryTokenEntity.getSsoToken().equals(ACCESS_TOKEN);
     assert perryTokenEntity.getCreatedDate() != null;
-    assert perryTokenEntity.getAccessCode().equals(accessCode);
+    assert perryTokenEntity.getAccessCode() == null;
     assert perryTokenEntity.getToken().equals(PERRY_TOKEN);
+    assert accessCodeRepository.findOne(accessCode).getToken().equals(PERRY_TOKEN);
     String perryToken = tokenService.getPerryTokenByAccessCode(accessCode);
     assert perryToken != null;
     assert perryToken.equals(PERRY_TOKEN);
-    perryTokenEntity = tokenRepository.findOne(PERRY_TOKEN);
-    assert perryTokenEntity.getAccessCode() == null;
+    assert accessCodeRepository.findOne(accessCode) == null;
+  }
+
+  @Test(expected = PerryException.class)
+  public void testAccessCodeIsRedeemedOnce() {
+    String accessCode = issueAccessCode();
+    tokenService.getPerryTokenByAccessCode(accessCode);
+    tokenService.getPerryTokenByAccessCode(accessCode);
+  }
+
+  @Test(expected = PerryException.class)
+  public void testExpiredAccessCode() {
+    String accessCode = issueAccessCode();
+    expireAccessCode(accessCode);
+    try {
+      tokenService.getPerryTokenByAccessCode(accessCode);
+    } catch (PerryException e) {
+      assert accessCodeRepository.findOne(accessCode) == null;
+      throw e;
+    }
+  }
+
+  @Test
+  public void testExpiredAccessCodesAreDeleted() {
+    properties.setTokenRecordTimeout(1000);
+    String accessCode = issueAccessCode();
+    String accessCode2 = issueAccessCode(PERRY_TOKEN + "2");
+    expireAccessCode(accessCode);
+    assert tokenReaper.purge() == 0;
+    assert accessCodeRepository.findOne(accessCode) == null;
+    assert accessCodeRepository.findOne(accessCode2) != null;
+    assert tokenRepository.findAll().size() == 2;
   }
 
   @Test
@@ -78,6 +123,7 @@ public class TokenServiceTest {
     String accessCode = issueAccessCode();
     String accessCode2 = issueAccessCode(PERRY_TOKEN + "2");
     assert !accessCode.equals(accessCode2);
+    assert tokenReaper.purge() == 0;
     assert tokenRepository.findAll().size() == 2;
   }
 
@@ -89,7 +135,7 @@ public class TokenServiceTest {
     assert tokenRepository.findAll().isEmpty();
   }
 
-  @Test(expected = TransactionSystemException.class)
+  @Test(expected = PerryException.class)
   public void testDeleteNotExistingToken() {
     tokenService.deleteToken(PERRY_TOKEN);
   }
@@ -100,7 +146,25 @@ public class TokenServiceTest {
     String accessCode = issueAccessCode();
     String accessCode2 = issueAccessCode(PERRY_TOKEN + "2");
     assert !accessCode.equals(accessCode2);
-    assert tokenRepository.findAll().size() == 1;
+    assert tokenRepository.findAll().size() == 2;
+    assert tokenReaper.purge() == 2;
+    assert tokenReaper.getLastPurged() == 2;
+    assert tokenRepository.findAll().isEmpty();
+  }
+
+  @Test
+  public void testExpiredRecordsAreDeletedInChunks() {
+    properties.setTokenRecordTimeout(0);
+    properties.getTokenReaper().setChunkSize(2);
+    try {
+      for (int i = 0; i < 5; i++) {
+        issueAccessCode(PERRY_TOKEN + i);
+      }
+      assert tokenReaper.purge() == 5;
+      assert tokenRepository.findAll().isEmpty();
+    } finally {
+      properties.getTokenReaper().setChunkSize(1000);
+    }
   }
 
   @Test
@@ -128,6 +192,54 @@ public class TokenServiceTest {
     }
   }
 
+  @Test
+  public void testValidatedTokenIsCached() {
+    properties.setTokenRecordTimeout(1000);
+    String perryToken = tokenService.getPerryTokenByAccessCode(issueAccessCode());
+    PerryTokenEntity perryTokenEntity = tokenService.getPerryToken(perryToken);
+    long hits = tokenCache.stats().hitCount();
+    tokenRepository.deleteAll();
+    assert tokenService.getPerryToken(perryToken).getToken().equals(perryTokenEntity.getToken());
+    assert tokenCache.stats().hitCount() == hits + 1;
+  }
+
+  @Test(expected = PerryException.class)
+  public void testDeletedTokenIsEvicted() {
+    properties.setTokenRecordTimeout(1000);
+    String perryToken = tokenService.getPerryTokenByAccessCode(issueAccessCode());
+    tokenService.getPerryToken(perryToken);
+    tokenService.deleteToken(perryToken);
+    tokenService.getPerryToken(perryToken);
+  }
+
+  @Test
+  public void testLastUsedDateIsWrittenBehind() {
+    properties.setTokenRecordTimeout(1000);
+    String perryToken = tokenService.getPerryTokenByAccessCode(issueAccessCode());
+    Date createdDate = tokenRepository.findOne(perryToken).getLastUsedDate();
+    Date lastUsedDate = null;
+    for (int i = 0; i < 3; i++) {
+      lastUsedDate = tokenService.getPerryToken(perryToken).getLastUsedDate();
+    }
+    assert tokenRepository.findOne(perryToken).getLastUsedDate().getTime() == createdDate.getTime();
+    assert writeBehindBuffer.flush() == 1;
+    assert tokenRepository.findOne(perryToken).getLastUsedDate().getTime() == lastUsedDate.getTime();
+  }
+
+  @Test
+  public void testPendingLastUsedDateIsUsedForExpiration() {
+    properties.setTokenRecordTimeout(1);
+    String perryToken = tokenService.getPerryTokenByAccessCode(issueAccessCode());
+    tokenService.getPerryToken(perryToken);
+    PerryTokenEntity perryTokenEntity = tokenRepository.findOne(perryToken);
+    perryTokenEntity.setLastUsedDate(DateUtils.addMinutes(new Date(), -2));
+    tokenRepository.save(perryTokenEntity);
+    tokenCache.invalidateAll();
+    tokenService.getPerryToken(perryToken);
+    writeBehindBuffer.flush();
+    assert tokenRepository.findOne(perryToken).getLastUsedDate().after(DateUtils.addMinutes(new Date(), -1));
+  }
+
   private void validateLastUsedDate(Date minLastUsedDate, Supplier<PerryTokenEntity> perryTokenSupplier) {
     long minLastUsedDateTime = minLastUsedDate.getTime();
     PerryTokenEntity perryTokenEntity = perryTokenSupplier.get();
@@ -137,6 +249,12 @@ public class TokenServiceTest {
     assert lastUsedDate <= maxLastUsedDateTime;
   }
 
+  private void expireAccessCode(String accessCode) {
+    PerryAccessCodeEntity accessCodeEntity = accessCodeRepository.findOne(accessCode);
+    accessCodeEntity.setCreatedDate(DateUtils.addMinutes(new Date(), -11));
+    accessCodeRepository.save(accessCodeEntity);
+  }
+
   private String issueAccessCode() {
     return issueAccessCode(PERRY_TOKEN);
   }
@@ -0,0 +1,116 @@
+package gov.ca.cwds.service.token;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotSame;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.UniversalUserToken;
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PerryTokenCacheTest {
+
+  private static final String TOKEN = "token";
+
+  private PerryProperties properties;
+  private PerryTokenCache tokenCache;
+
+  @Before
+  public void before() {
+    properties = new PerryProperties();
+    properties.setTokenRecordTimeout(10);
+    tokenCache = new PerryTokenCache();
+    tokenCache.setProperties(properties);
+    tokenCache.init();
+  }
+
+  @Test
+  public void testHitAndMiss() {
+    assertNull(tokenCache.get(TOKEN));
+    PerryTokenEntity perryTokenEntity = perryTokenEntity(new Date());
+    tokenCache.put(perryTokenEntity);
+    assertEquals(TOKEN, tokenCache.get(TOKEN).getPerryTokenEntity().getToken());
+    assertEquals(1, tokenCache.stats().hitCount());
+    assertEquals(1, tokenCache.stats().missCount());
+  }
+
+  @Test
+  public void testExpiredRecordIsNotServed() {
+    tokenCache.put(perryTokenEntity(DateUtils.addMinutes(new Date(), -11)));
+    assertNull(tokenCache.get(TOKEN));
+    assertEquals(0, tokenCache.metrics().stream()
+        .filter(metric -> metric.getName().endsWith(".size"))
+        .findFirst().get().getValue().longValue());
+  }
+
+  @Test
+  public void testInvalidate() {
+    tokenCache.put(perryTokenEntity(new Date()));
+    tokenCache.invalidate(TOKEN);
+    tokenCache.invalidate(TOKEN);
+    assertNull(tokenCache.get(TOKEN));
+    assertEquals(1, tokenCache.getInvalidationCount());
+  }
+
+  @Test
+  public void testDisabled() {
+    properties.getTokenCache().setEnabled(false);
+    tokenCache.put(perryTokenEntity(new Date()));
+    assertNull(tokenCache.get(TOKEN));
+  }
+
+  @Test
+  public void testCachedTokenIsNotShared() {
+    PerryTokenEntity perryTokenEntity = perryTokenEntity(new Date());
+    tokenCache.put(perryTokenEntity);
+    perryTokenEntity.setUser("changed");
+    PerryTokenEntity cached = tokenCache.get(TOKEN).getPerryTokenEntity();
+    cached.setLastIdpValidateTime(new Date());
+
+    assertNotSame(cached, tokenCache.get(TOKEN).getPerryTokenEntity());
+    assertNull(tokenCache.get(TOKEN).getPerryTokenEntity().getUser());
+    assertNull(tokenCache.get(TOKEN).getPerryTokenEntity().getLastIdpValidateTime());
+  }
+
+  @Test
+  public void testTouchReplacesSnapshot() {
+    tokenCache.put(perryTokenEntity(DateUtils.addMinutes(new Date(), -9)));
+    Date lastUsedDate = new Date();
+    tokenCache.touch(TOKEN, lastUsedDate);
+    assertEquals(lastUsedDate, tokenCache.get(TOKEN).getPerryTokenEntity().getLastUsedDate());
+
+    tokenCache.touch("other", lastUsedDate);
+    assertNull(tokenCache.get("other"));
+  }
+
+  @Test
+  public void testCachedUserTokenIsNotShared() {
+    PerryTokenEntity perryTokenEntity = perryTokenEntity(new Date());
+    perryTokenEntity.setJsonToken(
+        "{\"user\": \"user\", \"roles\": [\"role\"], \"admin_office_ids\": [\"office\"]}");
+    tokenCache.put(perryTokenEntity);
+    UniversalUserToken userToken = tokenCache.get(TOKEN).getUniversalUserToken();
+    userToken.getRoles().add("changed");
+    ((Set) userToken.getParameter("admin_office_ids")).add("changed");
+    tokenCache.touch(TOKEN, new Date());
+
+    UniversalUserToken cached = tokenCache.get(TOKEN).getUniversalUserToken();
+    assertNotSame(userToken, cached);
+    assertEquals("user", cached.getUserId());
+    assertEquals(Collections.singleton("role"), cached.getRoles());
+    assertEquals(Collections.singleton("office"), cached.getParameter("admin_office_ids"));
+  }
+
+  private static PerryTokenEntity perryTokenEntity(Date lastUsedDate) {
+    PerryTokenEntity perryTokenEntity = new PerryTokenEntity();
+    perryTokenEntity.setToken(TOKEN);
+    perryTokenEntity.setLastUsedDate(lastUsedDate);
+    return perryTokenEntity;
+  }
+}
@@ -0,0 +1,133 @@
+package gov.ca.cwds.service.token;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import gov.ca.cwds.PerryProperties;
+import gov.ca.cwds.data.reissue.model.CompressedColumn;
+import gov.ca.cwds.data.reissue.model.PerryTokenEntity;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.oauth2.client.DefaultOAuth2ClientContext;
+import org.springframework.security.oauth2.client.OAuth2ClientContext;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+
+public class PerryTokenCodecTest {
+
+  private static final String JSON_TOKEN =
+      "{\"user\":\"RACFID\",\"roles\":[" + StringUtils.repeat("\"role\",", 200) + "\"role\"]}";
+
+  private PerryProperties properties;
+  private PerryTokenCodec tokenCodec;
+
+  @Before
+  public void before() {
+    properties = new PerryProperties();
+    tokenCodec = new PerryTokenCodec();
+    tokenCodec.setProperties(properties);
+  }
+
+  @Test
+  public void testCompactSecurityContext() {
+    DefaultOAuth2ClientContext clientContext = clientContext();
+    byte[] encoded = tokenCodec.encodeSecurityContext(clientContext);
+    assertTrue(SecurityContextCodec.isCompact(encoded));
+    assertTrue(encoded.length < SerializationUtils.serialize(clientContext).length);
+
+    OAuth2AccessToken decoded =
+        tokenCodec.<OAuth2ClientContext>decodeSecurityContext(encoded).getAccessToken();
+    OAuth2AccessToken accessToken = clientContext.getAccessToken();
+    assertEquals(accessToken.getValue(), decoded.getValue());
+    assertEquals(accessToken.getTokenType(), decoded.getTokenType());
+    assertEquals(accessToken.getExpiration(), decoded.getExpiration());
+    assertEquals(accessToken.getScope(), decoded.getScope());
+    assertEquals(accessToken.getAdditionalInformation(), decoded.getAdditionalInformation());
+    assertEquals(accessToken.getRefreshToken().getValue(), decoded.getRefreshToken().getValue());
+    assertEquals(((ExpiringOAuth2RefreshToken) accessToken.getRefreshToken()).getExpiration(),
+        ((ExpiringOAuth2RefreshToken) decoded.getRefreshToken()).getExpiration());
+  }
+
+  @Test
+  public void testLegacySecurityContext() {
+    DefaultOAuth2ClientContext clientContext = clientContext();
+    byte[] legacy = SerializationUtils.serialize(clientContext);
+    assertFalse(SecurityContextCodec.isCompact(legacy));
+    OAuth2ClientContext decoded = tokenCodec.decodeSecurityContext(legacy);
+    assertEquals(clientContext.getAccessToken().getValue(), decoded.getAccessToken().getValue());
+  }
+
+  @Test
+  public void testCompactSecurityContextDisabled() {
+    properties.getTokenCodec().setCompactSecurityContext(false);
+    DefaultOAuth2ClientContext clientContext = clientContext();
+    assertArrayEquals(SerializationUtils.serialize(clientContext),
+        tokenCodec.encodeSecurityContext(clientContext));
+  }
+
+  @Test
+  public void testSecurityContextWithoutAccessToken() {
+    byte[] encoded = tokenCodec.encodeSecurityContext(new DefaultOAuth2ClientContext());
+    assertFalse(SecurityContextCodec.isCompact(encoded));
+    assertNull(tokenCodec.<OAuth2ClientContext>decodeSecurityContext(encoded).getAccessToken());
+  }
+
+  @Test
+  public void testCompressJsonToken() {
+    String encoded = tokenCodec.encodeJsonToken(JSON_TOKEN);
+    assertTrue(CompressedColumn.isCompressed(encoded));
+    assertTrue(encoded.length() < JSON_TOKEN.length());
+
+    PerryTokenEntity perryTokenEntity = new PerryTokenEntity();
+    perryTokenEntity.setJsonToken(encoded);
+    assertEquals(JSON_TOKEN, perryTokenEntity.getJsonToken());
+  }
+
+  @Test
+  public void testSmallValuesAreNotCompressed() {
+    assertEquals("{}", tokenCodec.encodeJsonToken("{}"));
+    assertEquals("sso", tokenCodec.encodeSsoToken("sso"));
+  }
+
+  @Test
+  public void testSsoTokenIsNotCompressedByDefault() {
+    assertEquals(JSON_TOKEN, tokenCodec.encodeSsoToken(JSON_TOKEN));
+    properties.getTokenCodec().setCompressSsoToken(true);
+    assertTrue(CompressedColumn.isCompressed(tokenCodec.encodeSsoToken(JSON_TOKEN)));
+  }
+
+  @Test
+  public void testLegacyPlainColumns() {
+    PerryTokenEntity perryTokenEntity = new PerryTokenEntity();
+    perryTokenEntity.setJsonToken(JSON_TOKEN);
+    perryTokenEntity.setSsoToken("sso");
+    assertEquals(JSON_TOKEN, perryTokenEntity.getJsonToken());
+    assertEquals("sso", perryTokenEntity.getSsoToken());
+  }
+
+  private static DefaultOAuth2ClientContext clientContext() {
+    DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken("access-token-value");
+    accessToken.setTokenType("bearer");
+    accessToken.setExpiration(new Date(System.currentTimeMillis() + 60000));
+    accessToken.setScope(Collections.singleton("openid"));
+    accessToken.setRefreshToken(new DefaultExpiringOAuth2RefreshToken("refresh-token-value",
+        new Date(System.currentTimeMillis() + 120000)));
+    Map<String, Object> additionalInformation = new HashMap<>();
+    additionalInformation.put("id_token", "id-token-value");
+    accessToken.setAdditionalInformation(additionalInformation);
+    DefaultOAuth2ClientContext clientContext = new DefaultOAuth2ClientContext();
+    clientContext.setAccessToken(accessToken);
+    return clientContext;
+  }
+}
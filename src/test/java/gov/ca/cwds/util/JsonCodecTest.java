@@ -0,0 +1,34 @@
+package gov.ca.cwds.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import gov.ca.cwds.UniversalUserToken;
+import gov.ca.cwds.service.mfa.model.RefreshRequest;
+import gov.ca.cwds.service.scripts.ScriptTestBase;
+import java.util.Map;
+import org.junit.Test;
+
+public class JsonCodecTest {
+
+  @Test
+  public void testReadUserToken() throws Exception {
+    String json = ScriptTestBase.readResource("/scripts/default/default-cals.json");
+    UniversalUserToken userToken = JsonCodec.readUserToken(json);
+    assertEquals("uuid", userToken.getUserId());
+    assertEquals("State of California", userToken.getParameter("county_name"));
+  }
+
+  @Test
+  public void testReadersAreShared() {
+    assertSame(JsonCodec.reader(RefreshRequest.class), JsonCodec.reader(RefreshRequest.class));
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    RefreshRequest request = new RefreshRequest();
+    request.setClientId("client");
+    Map map = JsonCodec.readMap(JsonCodec.write(request));
+    assertEquals("client", map.get("ClientId"));
+  }
+}